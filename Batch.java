@@ -0,0 +1,188 @@
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Class which solves a stream of instances in a single JVM: each instance is a line with the
+ * name of its task (retele, reclame or registre) and an id, followed by the data of the task,
+ * as given to the task on its own; the answers are written in the order of the instances,
+ * each after a line with its id
+ */
+public class Batch {
+    /**
+     * Number of instances read ahead of the oldest one not written yet, for each thread
+     */
+    private static final int PENDING_PER_THREAD = 2;
+
+    /**
+     * An instance read from the input, whose answer may not be known yet
+     */
+    private static class Instance {
+        private final String id;
+        private final Task task;
+        private final Future<byte[]> answer;
+
+        Instance(final String id, final Task task, final Future<byte[]> answer) {
+            this.id = id;
+            this.task = task;
+            this.answer = answer;
+        }
+    }
+
+    /**
+     * The buffer receiving the answer of the instance solved by each thread, reused
+     * from one instance to the next
+     */
+    private static final ThreadLocal<ByteArrayOutputStream> ANSWER_BUFFERS =
+            ThreadLocal.withInitial(ByteArrayOutputStream::new);
+
+    /**
+     * The number of threads solving the instances ("batch.threads" system property,
+     * by default the number of available cores); a single one if the oracle cannot answer
+     * several questions at the same time (e.g. the python oracle sharing "sat.cnf")
+     */
+    private final int noThreads = Oracle.fromProperties().isConcurrent()
+            ? Integer.getInteger(Constants.BATCH_THREADS_PROPERTY, Runtime.getRuntime().availableProcessors())
+            : 1;
+    /**
+     * Number of instances solved so far, and how many of them failed
+     */
+    private int noInstances;
+    private int noFailures;
+    /**
+     * Number of instances settled by the heuristics (see Task.trySettleByHeuristics),
+     * out of those which tried them
+     */
+    private int noHeuristicHits;
+    private int noHeuristicTries;
+
+    /**
+     * Read the instances from stdin, solve them (with at most noThreads at the same time)
+     * and write their answers to stdout, in order
+     */
+    public void run() throws IOException, InterruptedException {
+        FastReader reader = new FastReader(System.in);
+        OutputStream output = new BufferedOutputStream(System.out);
+        ExecutorService solvers = Executors.newFixedThreadPool(noThreads, runnable -> {
+            Thread thread = new Thread(runnable, "batch-solver");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Deque<Instance> pending = new ArrayDeque<>();
+        long start = System.nanoTime();
+
+        try {
+            String name;
+            while ((name = reader.nextWord()) != null) {
+                String id = reader.nextWord();
+                if (id == null) {
+                    throw new IOException("The instance " + name + " has no id");
+                }
+                // the instances are read in order, on this thread, sharing the reader's buffer
+                Task task = newTask(name);
+                task.setInput(reader);
+                task.read();
+                pending.add(new Instance(id, task, solvers.submit(() -> solve(task))));
+
+                // keep a bounded number of instances in memory, write the oldest ones first
+                while (pending.size() >= PENDING_PER_THREAD * noThreads) {
+                    write(pending.poll(), output);
+                }
+            }
+            while (!pending.isEmpty()) {
+                write(pending.poll(), output);
+            }
+            output.flush();
+        } finally {
+            solvers.shutdownNow();
+        }
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.err.printf("Batch: %d instances in %.3f s (%.1f instances/s, %d threads)%n",
+                noInstances, seconds, noInstances / seconds, noThreads);
+        if (noFailures > 0) {
+            System.err.printf("Batch: %d instances failed%n", noFailures);
+        }
+        if (noHeuristicTries > 0) {
+            System.err.printf("Batch: heuristics settled %d of %d instances (%.1f%% hit rate)%n",
+                    noHeuristicHits, noHeuristicTries, 100.0 * noHeuristicHits / noHeuristicTries);
+        }
+    }
+
+    /**
+     * Solve an instance whose data was read
+     * @param task the task of the instance
+     * @return the answer of the task
+     */
+    private static byte[] solve(Task task) throws IOException, InterruptedException {
+        ByteArrayOutputStream buffer = ANSWER_BUFFERS.get();
+        buffer.reset();
+        task.setOutput(new PrintStream(buffer, false, StandardCharsets.UTF_8));
+        task.answer();
+        task.output.flush();
+        return buffer.toByteArray();
+    }
+
+    /**
+     * Wait for the answer of an instance and write it, after a line with the instance's id;
+     * an instance which failed gets an "Error" line with the cause instead, and the
+     * stream goes on
+     */
+    private void write(Instance instance, OutputStream output) throws IOException, InterruptedException {
+        byte[] answer;
+        boolean failed = false;
+        try {
+            answer = instance.answer.get();
+        } catch (ExecutionException e) {
+            System.err.println("The instance " + instance.id + " failed: " + e.getCause());
+            // the cause is kept on a single line (e.g. the traceback of the python oracle)
+            String cause = String.valueOf(e.getCause()).replaceAll("\\s*\\R\\s*", " ");
+            answer = (Constants.ERROR + ": " + cause + Constants.NEW_LINE).getBytes(StandardCharsets.UTF_8);
+            failed = true;
+            noFailures++;
+        }
+        output.write((instance.id + Constants.NEW_LINE).getBytes(StandardCharsets.UTF_8));
+        output.write(answer);
+        output.write(Constants.NEW_LINE.getBytes(StandardCharsets.UTF_8));
+        noInstances++;
+        if (!failed && instance.task.hasHeuristics()) {
+            noHeuristicTries++;
+            if (instance.task.isSettledByHeuristics()) {
+                noHeuristicHits++;
+            }
+        }
+    }
+
+    /**
+     * @param name the name of the task: retele, reclame or registre
+     * @return a new instance of the task
+     */
+    private static Task newTask(String name) {
+        switch (name.toLowerCase()) {
+            case Constants.RETELE_TASK:
+                return new Retele();
+            case Constants.RECLAME_TASK:
+                return new Reclame();
+            case Constants.REGISTRE_TASK:
+                return new Registre();
+            default:
+                throw new IllegalArgumentException("Unknown task: " + name);
+        }
+    }
+
+    /**
+     * The main method for running the program
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        new Batch().run();
+    }
+}
@@ -0,0 +1,91 @@
+/**
+ * Graph kept as an adjacency matrix packed in bits: the row of each vertex is a
+ * sequence of 64-bit words, so the neighbours are iterated word by word
+ */
+public class BitsetGraph implements Graph {
+    private final int noVertices;
+    /**
+     * Number of words of each row (bits 0..n)
+     */
+    private final int rowWords;
+    /**
+     * All the rows, one after the other (the row of vertex v starts at v * rowWords)
+     */
+    private final long[] bits;
+    private final int[] degrees;
+
+    public BitsetGraph(final int noVertices) {
+        this.noVertices = noVertices;
+        this.rowWords = (noVertices >> 6) + 1;
+        this.bits = new long[(noVertices + 1) * rowWords];
+        this.degrees = new int[noVertices + 1];
+    }
+
+    /**
+     * Add an undirected edge; duplicated edges and loops are ignored
+     */
+    public void addEdge(int v, int w) {
+        if (v == w || hasEdge(v, w)) {
+            return;
+        }
+        bits[v * rowWords + (w >> 6)] |= 1L << w;
+        bits[w * rowWords + (v >> 6)] |= 1L << v;
+        degrees[v]++;
+        degrees[w]++;
+    }
+
+    @Override
+    public int getNoVertices() {
+        return noVertices;
+    }
+
+    @Override
+    public boolean hasEdge(int v, int w) {
+        return (bits[v * rowWords + (w >> 6)] & (1L << w)) != 0;
+    }
+
+    @Override
+    public int degree(int v) {
+        return degrees[v];
+    }
+
+    @Override
+    public int nextNeighbour(int v, int from) {
+        return nextBit(v, from, false);
+    }
+
+    @Override
+    public int nextNonNeighbour(int v, int from) {
+        int w = nextBit(v, from, true);
+        if (w == v) {
+            w = nextBit(v, v + 1, true);
+        }
+        return w;
+    }
+
+    /**
+     * Find the next set (or clear) bit of a row, between from and n
+     */
+    private int nextBit(int v, int from, boolean clear) {
+        if (from > noVertices) {
+            return -1;
+        }
+        int start = v * rowWords;
+        int index = from >> 6;
+        long word = bits[start + index];
+        if (clear) {
+            word = ~word;
+        }
+        word &= -1L << from;
+        while (true) {
+            if (word != 0) {
+                int w = (index << 6) + Long.numberOfTrailingZeros(word);
+                return w <= noVertices ? w : -1;
+            }
+            if (++index == rowWords) {
+                return -1;
+            }
+            word = clear ? ~bits[start + index] : bits[start + index];
+        }
+    }
+}
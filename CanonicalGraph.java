@@ -0,0 +1,173 @@
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+/**
+ * Class which relabels a graph in a canonical way (as far as a cheap labelling goes)
+ * and hashes the relabelled graph, as the key of the solution cache: the vertices are
+ * ordered by their color after color refinement (degree, then the multiset of the
+ * neighbours' colors, until the classes stop splitting), and the remaining ties by
+ * their label; isomorphic graphs whose refinement does not separate all the vertices
+ * may get different keys, but equal keys always mean isomorphic graphs, related by
+ * the two labellings
+ */
+public class CanonicalGraph {
+    /**
+     * For each vertex, its canonical label (both from 1 to n)
+     */
+    private final int[] canonicalLabels;
+    /**
+     * For each canonical label, the vertex
+     */
+    private final int[] vertices;
+    /**
+     * The hexadecimal SHA-256 of the number of vertices and of the relabelled, sorted edges
+     */
+    private final String hash;
+
+    public CanonicalGraph(final Graph graph) {
+        int n = graph.getNoVertices();
+        int[] colors = refineColors(graph);
+
+        Integer[] order = new Integer[n];
+        for (int v = 1; v <= n; v++) {
+            order[v - 1] = v;
+        }
+        Arrays.sort(order, (first, second) -> colors[first] != colors[second]
+                ? Integer.compare(colors[first], colors[second]) : Integer.compare(first, second));
+        canonicalLabels = new int[n + 1];
+        vertices = new int[n + 1];
+        for (int label = 1; label <= n; label++) {
+            vertices[label] = order[label - 1];
+            canonicalLabels[order[label - 1]] = label;
+        }
+        hash = hashEdges(graph);
+    }
+
+    /**
+     * @return the hexadecimal hash of the relabelled graph
+     */
+    public String getHash() {
+        return hash;
+    }
+
+    public int getCanonicalLabel(int v) {
+        return canonicalLabels[v];
+    }
+
+    public int getVertex(int canonicalLabel) {
+        return vertices[canonicalLabel];
+    }
+
+    /**
+     * Color refinement: start from the degrees, and give a new color to each distinct
+     * pair (color, sorted colors of the neighbours), until the number of colors is stable
+     * @return the color of each vertex
+     */
+    private static int[] refineColors(Graph graph) {
+        int n = graph.getNoVertices();
+        int[] colors = new int[n + 1];
+        for (int v = 1; v <= n; v++) {
+            colors[v] = graph.degree(v);
+        }
+        int noColors = rank(colors, new int[n + 1][]);
+
+        while (true) {
+            int[][] signatures = new int[n + 1][];
+            for (int v = 1; v <= n; v++) {
+                int[] signature = new int[graph.degree(v) + 1];
+                int i = 1;
+                for (int w = graph.nextNeighbour(v, 1); w != -1; w = graph.nextNeighbour(v, w + 1)) {
+                    signature[i++] = colors[w];
+                }
+                Arrays.sort(signature, 1, signature.length);
+                signature[0] = colors[v];
+                signatures[v] = signature;
+            }
+            int[] refined = new int[n + 1];
+            System.arraycopy(colors, 0, refined, 0, n + 1);
+            int noRefined = rank(refined, signatures);
+            colors = refined;
+            if (noRefined == noColors) {
+                return colors;
+            }
+            noColors = noRefined;
+        }
+    }
+
+    /**
+     * Replace the colors with the ranks of the pairs (color, signature), from 0
+     * @return the number of distinct pairs
+     */
+    private static int rank(int[] colors, int[][] signatures) {
+        int n = colors.length - 1;
+        Integer[] order = new Integer[n];
+        for (int v = 1; v <= n; v++) {
+            order[v - 1] = v;
+        }
+        int[] keys = colors.clone();
+        Arrays.sort(order, (first, second) -> compare(keys, signatures, first, second));
+        int noColors = 0;
+        for (int i = 0; i < n; i++) {
+            if (i > 0 && compare(keys, signatures, order[i - 1], order[i]) != 0) {
+                noColors++;
+            }
+            colors[order[i]] = noColors;
+        }
+        return n == 0 ? 0 : noColors + 1;
+    }
+
+    private static int compare(int[] colors, int[][] signatures, int first, int second) {
+        if (colors[first] != colors[second]) {
+            return Integer.compare(colors[first], colors[second]);
+        }
+        if (signatures[first] == null) {
+            return 0;
+        }
+        return Arrays.compare(signatures[first], signatures[second]);
+    }
+
+    /**
+     * @return the hexadecimal SHA-256 of the number of vertices and of the sorted
+     * relabelled edges
+     */
+    private String hashEdges(Graph graph) {
+        int n = graph.getNoVertices();
+        long noEdges = 0;
+        for (int v = 1; v <= n; v++) {
+            noEdges += graph.degree(v);
+        }
+        long[] edges = new long[(int) (noEdges / 2)];
+        int noSorted = 0;
+        for (int v = 1; v <= n; v++) {
+            for (int w = graph.nextNeighbour(v, v + 1); w != -1; w = graph.nextNeighbour(v, w + 1)) {
+                int first = Math.min(canonicalLabels[v], canonicalLabels[w]);
+                int second = Math.max(canonicalLabels[v], canonicalLabels[w]);
+                edges[noSorted++] = ((long) first << 32) | second;
+            }
+        }
+        Arrays.sort(edges);
+
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            ByteBuffer buffer = ByteBuffer.allocate(1 << 13);
+            buffer.putInt(n);
+            for (long edge : edges) {
+                if (buffer.remaining() < Long.BYTES) {
+                    digest.update(buffer.array(), 0, buffer.position());
+                    buffer.clear();
+                }
+                buffer.putLong(edge);
+            }
+            digest.update(buffer.array(), 0, buffer.position());
+            StringBuilder hex = new StringBuilder();
+            for (byte b : digest.digest()) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
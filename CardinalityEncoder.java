@@ -0,0 +1,335 @@
+/**
+ * Class which writes cardinality constraints (at most one, at most k, at least k
+ * of a set of literals) as clauses, using the selected encoding
+ */
+public class CardinalityEncoder {
+    /**
+     * Below this number of literals, the recursive at-most-one encodings
+     * fall back to the pairwise encoding
+     */
+    private static final int PAIRWISE_THRESHOLD = 4;
+
+    private CardinalityEncoder() {}
+
+    /**
+     * At most one of the literals is true
+     * @param sink the sink receiving the clauses
+     * @param literals the literals
+     * @param encoding the encoding
+     */
+    public static void atMostOne(ClauseSink sink, int[] literals, CardinalityEncoding encoding) {
+        switch (encoding) {
+            case SEQUENTIAL:
+                sequentialAtMostOne(sink, literals);
+                break;
+            case COMMANDER:
+                commanderAtMostOne(sink, literals);
+                break;
+            case PRODUCT:
+                productAtMostOne(sink, literals);
+                break;
+            case TOTALIZER:
+                atMostK(sink, literals, 1, encoding);
+                break;
+            default:
+                pairwiseAtMostOne(sink, literals);
+        }
+    }
+
+    /**
+     * At most k of the literals are true; the encodings specific to at-most-one
+     * fall back to the sequential counter when k > 1; a negative k (e.g. at least k of
+     * fewer than k literals) gives the empty clause
+     * @param sink the sink receiving the clauses
+     * @param literals the literals
+     * @param k the maximum number of true literals
+     * @param encoding the encoding
+     */
+    public static void atMostK(ClauseSink sink, int[] literals, int k, CardinalityEncoding encoding) {
+        if (k < 0) {
+            sink.addClause();
+            return;
+        }
+        if (k >= literals.length) {
+            return;
+        }
+        if (k <= 0) {
+            for (int literal : literals) {
+                sink.addClause(-literal);
+            }
+            return;
+        }
+        if (k == 1 && encoding != CardinalityEncoding.TOTALIZER) {
+            atMostOne(sink, literals, encoding);
+            return;
+        }
+
+        if (encoding == CardinalityEncoding.TOTALIZER) {
+            int[] outputs = totalizer(sink, literals, 0, literals.length, k + 1, true, false);
+            sink.addClause(-outputs[k + 1]);
+        } else {
+            sequentialAtMostK(sink, literals, k);
+        }
+    }
+
+    /**
+     * At least k of the literals are true, written as at most n - k of their negations
+     * @param sink the sink receiving the clauses
+     * @param literals the literals
+     * @param k the minimum number of true literals
+     * @param encoding the encoding
+     */
+    public static void atLeastK(ClauseSink sink, int[] literals, int k, CardinalityEncoding encoding) {
+        int[] negations = new int[literals.length];
+        for (int i = 0; i < literals.length; i++) {
+            negations[i] = -literals[i];
+        }
+        atMostK(sink, negations, literals.length - k, encoding);
+    }
+
+    /**
+     * Unary counter over the literals, whose outputs can be assumed by an incremental
+     * solver: outputs[j] implies that at least j of the literals are true
+     * @param sink the sink receiving the clauses
+     * @param literals the literals
+     * @param encoding the encoding (totalizer, or sequential counter for the others)
+     * @return the outputs, indexed by j (1 <= j <= n)
+     */
+    public static int[] atLeastCounter(ClauseSink sink, int[] literals, CardinalityEncoding encoding) {
+        if (encoding == CardinalityEncoding.TOTALIZER) {
+            return totalizer(sink, literals, 0, literals.length, literals.length, false, true);
+        }
+
+        // previous[j] implies that at least j of the first (i - 1) literals are true
+        int[] previous = new int[1];
+        for (int i = 1; i <= literals.length; i++) {
+            int literal = literals[i - 1];
+            int[] current = new int[i + 1];
+            for (int j = 1; j <= i; j++) {
+                current[j] = sink.newVariable();
+                // at least j of the first i: at least j of the first (i - 1),
+                // or the ith one and at least j - 1 of the first (i - 1)
+                if (j < i) {
+                    sink.addClause(-current[j], previous[j], literal);
+                } else {
+                    sink.addClause(-current[j], literal);
+                }
+                if (j > 1) {
+                    if (j < i) {
+                        sink.addClause(-current[j], previous[j], previous[j - 1]);
+                    } else {
+                        sink.addClause(-current[j], previous[j - 1]);
+                    }
+                }
+            }
+            previous = current;
+        }
+        return previous;
+    }
+
+    /**
+     * Unary counter bounded by a limit, whose outputs are implied by the literals: at least
+     * j of the literals being true (j <= limit) implies outputs[j], so assuming !outputs[j]
+     * keeps fewer than j of them true, and an incremental solver can lower the bound from
+     * one call to the next; at most n * limit auxiliary variables, instead of the n^2 / 2
+     * of a counter over all the literals
+     * @param sink the sink receiving the clauses
+     * @param literals the literals (a literal may be repeated, to count it several times)
+     * @param limit the greatest bound which will be assumed (at most n)
+     * @param encoding the encoding (totalizer, or sequential counter for the others)
+     * @return the outputs, indexed by j (1 <= j <= limit)
+     */
+    public static int[] atMostCounter(ClauseSink sink, int[] literals, int limit, CardinalityEncoding encoding) {
+        if (encoding == CardinalityEncoding.TOTALIZER && literals.length > 0) {
+            return totalizer(sink, literals, 0, literals.length, limit, true, false);
+        }
+
+        // previous[j] is implied by at least j of the first (i - 1) literals being true
+        int[] previous = new int[limit + 1];
+        for (int i = 1; i <= literals.length; i++) {
+            int literal = literals[i - 1];
+            int[] current = new int[limit + 1];
+            for (int j = 1; j <= limit && j <= i; j++) {
+                current[j] = sink.newVariable();
+                if (j == 1) {
+                    sink.addClause(-literal, current[1]);
+                } else {
+                    sink.addClause(-literal, -previous[j - 1], current[j]);
+                }
+                if (previous[j] != 0) {
+                    sink.addClause(-previous[j], current[j]);
+                }
+            }
+            previous = current;
+        }
+        return previous;
+    }
+
+    /**
+     * One clause (!x_i v !x_j) for each pair of literals
+     */
+    private static void pairwiseAtMostOne(ClauseSink sink, int[] literals) {
+        for (int i = 0; i < literals.length; i++) {
+            for (int j = i + 1; j < literals.length; j++) {
+                sink.addClause(-literals[i], -literals[j]);
+            }
+        }
+    }
+
+    /**
+     * Sequential counter for at most one: s_i means "one of the first i literals is true"
+     */
+    private static void sequentialAtMostOne(ClauseSink sink, int[] literals) {
+        int n = literals.length;
+        if (n <= 1) {
+            return;
+        }
+        int previous = sink.newVariable();
+        sink.addClause(-literals[0], previous);
+        for (int i = 1; i < n - 1; i++) {
+            int current = sink.newVariable();
+            sink.addClause(-literals[i], current);
+            sink.addClause(-previous, current);
+            sink.addClause(-literals[i], -previous);
+            previous = current;
+        }
+        sink.addClause(-literals[n - 1], -previous);
+    }
+
+    /**
+     * Commander encoding: the literals are split in groups of three, with pairwise clauses
+     * within each group; a true literal implies its group's commander, and at most one
+     * commander is true (recursively)
+     */
+    private static void commanderAtMostOne(ClauseSink sink, int[] literals) {
+        if (literals.length <= PAIRWISE_THRESHOLD) {
+            pairwiseAtMostOne(sink, literals);
+            return;
+        }
+        int noGroups = (literals.length + 2) / 3;
+        int[] commanders = new int[noGroups];
+        for (int g = 0; g < noGroups; g++) {
+            int from = 3 * g;
+            int to = Math.min(literals.length, from + 3);
+            commanders[g] = sink.newVariable();
+            for (int i = from; i < to; i++) {
+                sink.addClause(-literals[i], commanders[g]);
+                for (int j = i + 1; j < to; j++) {
+                    sink.addClause(-literals[i], -literals[j]);
+                }
+            }
+        }
+        commanderAtMostOne(sink, commanders);
+    }
+
+    /**
+     * Product encoding: each literal gets a row and a column within a p x q grid, and
+     * implies both of them; at most one row and at most one column are true (recursively)
+     */
+    private static void productAtMostOne(ClauseSink sink, int[] literals) {
+        if (literals.length <= PAIRWISE_THRESHOLD) {
+            pairwiseAtMostOne(sink, literals);
+            return;
+        }
+        int p = (int) Math.ceil(Math.sqrt(literals.length));
+        int q = (literals.length + p - 1) / p;
+        int[] rows = new int[p];
+        int[] columns = new int[q];
+        for (int r = 0; r < p; r++) {
+            rows[r] = sink.newVariable();
+        }
+        for (int c = 0; c < q; c++) {
+            columns[c] = sink.newVariable();
+        }
+        for (int i = 0; i < literals.length; i++) {
+            sink.addClause(-literals[i], rows[i / q]);
+            sink.addClause(-literals[i], columns[i % q]);
+        }
+        productAtMostOne(sink, rows);
+        productAtMostOne(sink, columns);
+    }
+
+    /**
+     * Sequential counter (Sinz): s_ij means "at least j of the first i literals are true",
+     * for j <= k, and the (k + 1)th true literal is forbidden
+     */
+    private static void sequentialAtMostK(ClauseSink sink, int[] literals, int k) {
+        int n = literals.length;
+        int[] previous = new int[k + 1];
+        for (int i = 0; i < n; i++) {
+            int literal = literals[i];
+            if (previous[k] != 0) {
+                // the literal cannot be true if k of the previous ones are already true
+                sink.addClause(-literal, -previous[k]);
+            }
+            if (i == n - 1) {
+                break;
+            }
+            int[] current = new int[k + 1];
+            for (int j = 1; j <= k && j <= i + 1; j++) {
+                current[j] = sink.newVariable();
+                if (j == 1) {
+                    sink.addClause(-literal, current[1]);
+                } else {
+                    sink.addClause(-literal, -previous[j - 1], current[j]);
+                }
+                if (previous[j] != 0) {
+                    sink.addClause(-previous[j], current[j]);
+                }
+            }
+            previous = current;
+        }
+    }
+
+    /**
+     * Totalizer: a tree of unary adders over literals[from, to), whose outputs are
+     * truncated to the given limit
+     * @param down whether the inputs imply the outputs (needed by at-most-k)
+     * @param up whether the outputs imply the inputs (needed by at-least-k)
+     * @return the outputs, indexed from 1 (outputs[j] for "at least j literals are true")
+     */
+    private static int[] totalizer(ClauseSink sink, int[] literals, int from, int to, int limit,
+                                   boolean down, boolean up) {
+        if (to - from == 1) {
+            return new int[]{0, literals[from]};
+        }
+        int middle = (from + to) / 2;
+        int[] left = totalizer(sink, literals, from, middle, limit, down, up);
+        int[] right = totalizer(sink, literals, middle, to, limit, down, up);
+        int p = left.length - 1;
+        int q = right.length - 1;
+        int m = Math.min(to - from, limit);
+
+        int[] outputs = new int[m + 1];
+        for (int j = 1; j <= m; j++) {
+            outputs[j] = sink.newVariable();
+        }
+        for (int i = 0; i <= p; i++) {
+            for (int j = 0; j <= q; j++) {
+                if (down && i + j >= 1) {
+                    // i true literals on the left and j on the right give i + j true literals
+                    if (i > 0) {
+                        sink.addLiteral(-left[i]);
+                    }
+                    if (j > 0) {
+                        sink.addLiteral(-right[j]);
+                    }
+                    sink.addLiteral(outputs[Math.min(i + j, m)]);
+                    sink.endClause();
+                }
+                if (up && i + j + 1 <= m) {
+                    // i + j + 1 true literals need more than i on the left or more than j on the right
+                    sink.addLiteral(-outputs[i + j + 1]);
+                    if (i < p) {
+                        sink.addLiteral(left[i + 1]);
+                    }
+                    if (j < q) {
+                        sink.addLiteral(right[j + 1]);
+                    }
+                    sink.endClause();
+                }
+            }
+        }
+        return outputs;
+    }
+}
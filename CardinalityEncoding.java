@@ -0,0 +1,51 @@
+/**
+ * The encodings available for the cardinality constraints
+ */
+public enum CardinalityEncoding {
+    /**
+     * One binary clause for each pair of literals, without auxiliary variables
+     * (at-most-one only)
+     */
+    PAIRWISE,
+    /**
+     * Sequential counter (Sinz), with n * k auxiliary variables
+     */
+    SEQUENTIAL,
+    /**
+     * Commander encoding (Klieber and Kwon), on groups of three literals (at-most-one only)
+     */
+    COMMANDER,
+    /**
+     * Product encoding (Chen), on a grid of about sqrt(n) x sqrt(n) literals (at-most-one only)
+     */
+    PRODUCT,
+    /**
+     * Totalizer (Bailleux and Boufkhad), a tree of unary adders
+     */
+    TOTALIZER;
+
+    /**
+     * Find the encoding with the given name, in any case
+     * @param name the name of the encoding
+     * @return the encoding
+     */
+    public static CardinalityEncoding fromName(String name) {
+        return valueOf(name.toUpperCase());
+    }
+
+    /**
+     * @return the encoding of the at-most-one constraints, selected through the
+     * "encoding.amo" system property (pairwise by default)
+     */
+    public static CardinalityEncoding atMostOneFromProperties() {
+        return fromName(System.getProperty(Constants.AMO_ENCODING_PROPERTY, PAIRWISE.name()));
+    }
+
+    /**
+     * @return the encoding of the at-most-k / at-least-k constraints, selected through the
+     * "encoding.amk" system property (sequential counter by default)
+     */
+    public static CardinalityEncoding atMostKFromProperties() {
+        return fromName(System.getProperty(Constants.AMK_ENCODING_PROPERTY, SEQUENTIAL.name()));
+    }
+}
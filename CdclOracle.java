@@ -0,0 +1,159 @@
+import java.util.concurrent.CancellationException;
+
+/**
+ * Oracle which solves the question in memory, using the CDCL solver
+ */
+public class CdclOracle implements Oracle {
+    /**
+     * The seed of the solver's random decisions, or 0 for the deterministic search
+     */
+    private final long seed;
+    /**
+     * The metrics receiving the counters of the solver
+     */
+    private Metrics metrics = Metrics.fromProperties();
+
+    public CdclOracle() {
+        this(0);
+    }
+
+    /**
+     * @param seed the seed of the solver's random decisions, or 0 for the deterministic search
+     */
+    public CdclOracle(final long seed) {
+        this.seed = seed;
+    }
+
+    @Override
+    public OracleAnswer solve(ClauseSink question) {
+        CdclSolver solver;
+        if (question instanceof CdclSolver) {
+            solver = (CdclSolver) question;
+        } else {
+            solver = newSolver();
+            solver.addFormula((Formula) question);
+        }
+        boolean satisfiable = solver.solve();
+        addCounters(solver);
+        if (satisfiable) {
+            return OracleAnswer.satisfiable(solver.getModel());
+        }
+        return OracleAnswer.unsatisfiable();
+    }
+
+    /**
+     * Descend from a first model of the hard clauses: each soft clause gets a relaxation
+     * literal (its negation, for a unit clause), true when the clause may be falsified, and
+     * a unary counter bounded by the cost c of the first model, over the relaxation literals
+     * (each repeated as many times as the weight of its clause, up to c), lets each call of
+     * the same solver assume that a smaller weight is falsified than by the last model,
+     * until none is better; the learnt clauses are kept from one call to the next. The
+     * counter has at most c auxiliary variables for each repetition of a relaxation literal
+     * (n * c for n soft clauses of weight 1). If the descent is interrupted, the last model is
+     * answered, as not proven to be of minimum cost
+     */
+    @Override
+    public OracleAnswer solveWeighted(WeightedFormula question) {
+        CdclSolver solver = newSolver();
+        solver.addFormula(question.getHardClauses());
+        Formula softClauses = question.getSoftClauses();
+        solver.ensureVariables(softClauses.getNoVariables());
+        int noSoftClauses = (int) softClauses.getNoClauses();
+        int[] relaxations = new int[noSoftClauses];
+        long[] weights = new long[noSoftClauses];
+        for (int c = 0; c < noSoftClauses; c++) {
+            weights[c] = question.getSoftWeight(c);
+            int start = softClauses.clauseStart(c);
+            int end = softClauses.clauseEnd(c);
+            if (end - start == 1) {
+                relaxations[c] = -softClauses.literalAt(start);
+                continue;
+            }
+            relaxations[c] = solver.newVariable();
+            for (int l = start; l < end; l++) {
+                solver.addLiteral(softClauses.literalAt(l));
+            }
+            solver.addLiteral(relaxations[c]);
+            solver.endClause();
+        }
+
+        if (!solver.solve()) {
+            addCounters(solver);
+            return OracleAnswer.unsatisfiable();
+        }
+        int[] model = solver.getModel();
+        long cost = cost(model, relaxations, weights);
+        if (cost > 0) {
+            // a weight above the first cost counts as much as the cost itself, which is
+            // never allowed again
+            int limit = Math.toIntExact(cost);
+            int noFalsified = 0;
+            for (long weight : weights) {
+                noFalsified = Math.addExact(noFalsified, (int) Math.min(weight, limit));
+            }
+            int[] falsified = new int[noFalsified];
+            int i = 0;
+            for (int c = 0; c < noSoftClauses; c++) {
+                for (long w = Math.min(weights[c], limit); w > 0; w--) {
+                    falsified[i++] = relaxations[c];
+                }
+            }
+            int[] atLeastFalsified = CardinalityEncoder.atMostCounter(solver, falsified, limit,
+                    CardinalityEncoding.atMostKFromProperties());
+            // a falsified weight below the last cost: a better model
+            try {
+                while (cost > 0 && solver.solve(-atLeastFalsified[(int) cost])) {
+                    model = solver.getModel();
+                    cost = cost(model, relaxations, weights);
+                }
+            } catch (CancellationException e) {
+                addCounters(solver);
+                return OracleAnswer.bestFound(model, cost);
+            }
+        }
+        addCounters(solver);
+        return OracleAnswer.optimum(model, cost);
+    }
+
+    /**
+     * @return the total weight of the relaxation literals true within the model
+     */
+    private static long cost(int[] model, int[] relaxations, long[] weights) {
+        long cost = 0;
+        for (int c = 0; c < relaxations.length; c++) {
+            if (model[Math.abs(relaxations[c]) - 1] == relaxations[c]) {
+                cost += weights[c];
+            }
+        }
+        return cost;
+    }
+
+    private void addCounters(CdclSolver solver) {
+        metrics.add("solver.conflicts", solver.getNoConflicts());
+        metrics.add("solver.decisions", solver.getNoDecisions());
+        metrics.add("solver.propagations", solver.getNoPropagations());
+    }
+
+    @Override
+    public void setMetrics(Metrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * The clauses are given directly to a new solver, without an intermediate formula
+     */
+    @Override
+    public ClauseSink newQuestion(int noVariables, long expectedClauses) {
+        CdclSolver solver = newSolver();
+        solver.ensureVariables(noVariables);
+        return solver;
+    }
+
+    private CdclSolver newSolver() {
+        CdclSolver solver = new CdclSolver();
+        if (seed != 0) {
+            solver.setRandomSeed(seed);
+        }
+        return solver;
+    }
+}
@@ -0,0 +1,846 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Conflict-driven clause learning SAT solver, running inside the JVM;
+ * it uses two watched literals per clause, the VSIDS branching heuristic
+ * with phase saving, first-UIP clause learning and Luby restarts
+ */
+public class CdclSolver implements ClauseSink {
+    /**
+     * Values of an assignment
+     */
+    private static final byte UNDEFINED = 0;
+    private static final byte TRUE = 1;
+    private static final byte FALSE = -1;
+    /**
+     * Number of conflicts corresponding to one unit of the Luby restart sequence
+     */
+    private static final int RESTART_UNIT = 100;
+    /**
+     * With a random seed, the fraction of the decisions taken on a random variable
+     */
+    private static final double RANDOM_DECISION_FREQUENCY = 0.02;
+    /**
+     * Number of conflicts, and of decisions, between two checks of the thread's interrupt
+     * flag (which is also checked at each restart)
+     */
+    private static final int INTERRUPT_CHECK_INTERVAL = 256;
+
+    /**
+     * A clause of the solver; the first two literals are the watched ones,
+     * and for a reason clause, the first literal is the implied one
+     */
+    private static final class Clause {
+        private final int[] literals;
+        private final boolean learnt;
+        private double activity;
+        private boolean deleted;
+
+        private Clause(final int[] literals, final boolean learnt) {
+            this.literals = literals;
+            this.learnt = learnt;
+        }
+    }
+
+    /**
+     * Number of variables known by the solver
+     */
+    private int noVariables;
+    /**
+     * The value assigned to each variable (indexed from 0)
+     */
+    private byte[] assigns = new byte[0];
+    /**
+     * The decision level at which each variable was assigned
+     */
+    private int[] level = new int[0];
+    /**
+     * The clause which implied each variable, or null for decisions
+     */
+    private Clause[] reason = new Clause[0];
+    /**
+     * The last sign given to each variable (phase saving)
+     */
+    private boolean[] savedNegative = new boolean[0];
+    /**
+     * The VSIDS activity of each variable
+     */
+    private double[] activity = new double[0];
+    private double variableIncrement = 1;
+    private final double variableDecay = 0.95;
+    private double clauseIncrement = 1;
+    private final double clauseDecay = 0.999;
+    /**
+     * For each literal, the clauses watching it, together with a blocking literal
+     * of each clause (if the blocking literal is true, the clause is not visited)
+     */
+    private Clause[][] watches = new Clause[0][];
+    private int[][] blockers = new int[0][];
+    private int[] noWatches = new int[0];
+    /**
+     * The assigned literals, in assignment order
+     */
+    private int[] trail = new int[0];
+    private int trailSize;
+    /**
+     * For each decision level, the trail position where it starts
+     */
+    private int[] trailLimits = new int[0];
+    private int decisionLevel;
+    /**
+     * The trail position of the next literal to be propagated
+     */
+    private int propagationHead;
+    /**
+     * Max-heap of the unassigned variables, ordered by activity
+     */
+    private int[] heap = new int[0];
+    private int heapSize;
+    private int[] heapIndex = new int[0];
+    private final List<Clause> clauses = new ArrayList<>();
+    private final List<Clause> learnts = new ArrayList<>();
+    /**
+     * The number of learnt clauses kept before reducing them, which slowly
+     * grows with the number of conflicts
+     */
+    private double maxLearnts;
+    private double learntsAdjustInterval;
+    private int learntsAdjustCountdown;
+    /**
+     * False once the clauses added at level 0 are contradictory
+     */
+    private boolean ok = true;
+    private boolean[] seen = new boolean[0];
+    private int[] model;
+    /**
+     * The assumptions of the current call of solve, one per decision level
+     */
+    private int[] assumptions = new int[0];
+    private int[] failedAssumptions = new int[0];
+    /**
+     * The clause being written literal by literal
+     */
+    private int[] pendingClause = new int[16];
+    private int pendingSize;
+    /**
+     * The generator of the random decisions, phases and initial activities,
+     * or null for the deterministic search
+     */
+    private SplittableRandom random;
+    private long noAddedClauses;
+    private long noAddedLiterals;
+    private long noConflicts;
+    private long noDecisions;
+    private long noPropagations;
+
+    /**
+     * Make sure the solver knows the variables 1..noVariables
+     * @param count the number of variables
+     */
+    public void ensureVariables(int count) {
+        if (count <= noVariables) {
+            return;
+        }
+        if (count > assigns.length) {
+            int capacity = Math.max(count, 2 * assigns.length);
+            assigns = Arrays.copyOf(assigns, capacity);
+            level = Arrays.copyOf(level, capacity);
+            reason = Arrays.copyOf(reason, capacity);
+            savedNegative = Arrays.copyOf(savedNegative, capacity);
+            activity = Arrays.copyOf(activity, capacity);
+            trail = Arrays.copyOf(trail, capacity);
+            trailLimits = Arrays.copyOf(trailLimits, capacity + 1);
+            heap = Arrays.copyOf(heap, capacity);
+            heapIndex = Arrays.copyOf(heapIndex, capacity);
+            seen = Arrays.copyOf(seen, capacity);
+            watches = Arrays.copyOf(watches, 2 * capacity);
+            blockers = Arrays.copyOf(blockers, 2 * capacity);
+            noWatches = Arrays.copyOf(noWatches, 2 * capacity);
+        }
+        for (int v = noVariables; v < count; v++) {
+            savedNegative[v] = random == null || random.nextBoolean();
+            activity[v] = random == null ? 0 : random.nextDouble() * 1e-5;
+            watches[2 * v] = new Clause[4];
+            watches[2 * v + 1] = new Clause[4];
+            blockers[2 * v] = new int[4];
+            blockers[2 * v + 1] = new int[4];
+            heapIndex[v] = -1;
+            heapInsert(v);
+        }
+        noVariables = count;
+    }
+
+    /**
+     * Diversify the search, for portfolios of solvers: the variables added from now on
+     * get a random initial phase and a tiny random activity (breaking the ties of the
+     * branching heuristic), and a few decisions are taken on random variables
+     * @param seed the seed of the generator
+     */
+    public void setRandomSeed(long seed) {
+        random = new SplittableRandom(seed);
+    }
+
+    /**
+     * Reserve a new variable
+     * @return the index of the new variable, as in DIMACS
+     */
+    @Override
+    public int newVariable() {
+        ensureVariables(noVariables + 1);
+        return noVariables;
+    }
+
+    @Override
+    public int getNoVariables() {
+        return noVariables;
+    }
+
+    /**
+     * @return the number of clauses given to the solver (before any simplification)
+     */
+    @Override
+    public long getNoClauses() {
+        return noAddedClauses;
+    }
+
+    @Override
+    public long getNoLiterals() {
+        return noAddedLiterals;
+    }
+
+    /**
+     * Add all the clauses of a formula
+     * @param formula the formula
+     * @return false if the solver became trivially unsatisfiable
+     */
+    public boolean addFormula(Formula formula) {
+        ensureVariables(formula.getNoVariables());
+        for (int c = 0; c < formula.getNoClauses(); c++) {
+            int start = formula.clauseStart(c);
+            int end = formula.clauseEnd(c);
+            int[] clause = new int[end - start];
+            for (int i = start; i < end; i++) {
+                clause[i - start] = formula.literalAt(i);
+            }
+            addClause(clause);
+        }
+        return ok;
+    }
+
+    @Override
+    public void addLiteral(int literal) {
+        if (pendingSize == pendingClause.length) {
+            pendingClause = Arrays.copyOf(pendingClause, 2 * pendingSize);
+        }
+        pendingClause[pendingSize++] = literal;
+    }
+
+    @Override
+    public void endClause() {
+        addClause(Arrays.copyOf(pendingClause, pendingSize));
+        pendingSize = 0;
+    }
+
+    /**
+     * Add a clause, given as DIMACS literals; can be called between two calls of solve
+     * @param clause the literals of the clause
+     * @return false if the solver became trivially unsatisfiable
+     */
+    @Override
+    public boolean addClause(int... clause) {
+        noAddedClauses++;
+        noAddedLiterals += clause.length;
+        if (!ok) {
+            return false;
+        }
+        cancelUntil(0);
+        int maxVariable = 0;
+        int[] literals = new int[clause.length];
+        for (int i = 0; i < clause.length; i++) {
+            maxVariable = Math.max(maxVariable, Math.abs(clause[i]));
+            literals[i] = toLiteral(clause[i]);
+        }
+        ensureVariables(maxVariable);
+
+        // remove the duplicated and the false literals, and skip the satisfied clauses
+        Arrays.sort(literals);
+        int size = 0;
+        int previous = -1;
+        for (int literal : literals) {
+            byte value = value(literal);
+            if (value == TRUE || literal == (previous ^ 1)) {
+                return true;
+            }
+            if (value != FALSE && literal != previous) {
+                literals[size++] = literal;
+                previous = literal;
+            }
+        }
+
+        if (size == 0) {
+            ok = false;
+        } else if (size == 1) {
+            enqueue(literals[0], null);
+            ok = propagate() == null;
+        } else {
+            Clause c = new Clause(Arrays.copyOf(literals, size), false);
+            clauses.add(c);
+            attach(c);
+        }
+        return ok;
+    }
+
+    /**
+     * Search for a model of the clauses added so far, in which the given
+     * assumptions are true; the assumptions only hold for the current call,
+     * while the learnt clauses and the heuristic state are kept for the next ones
+     * @param assumptions the DIMACS literals assumed to be true
+     * @return true if the clauses are satisfiable under the assumptions
+     * @throws CancellationException if the thread is interrupted while searching
+     * (the solver is left at level 0, and can be asked again)
+     */
+    public boolean solve(int... assumptions) {
+        model = null;
+        failedAssumptions = new int[0];
+        if (!ok) {
+            return false;
+        }
+        this.assumptions = new int[assumptions.length];
+        int maxVariable = 0;
+        for (int i = 0; i < assumptions.length; i++) {
+            maxVariable = Math.max(maxVariable, Math.abs(assumptions[i]));
+            this.assumptions[i] = toLiteral(assumptions[i]);
+        }
+        ensureVariables(maxVariable);
+        maxLearnts = Math.max(clauses.size() / 3.0, 1000);
+        learntsAdjustInterval = 100;
+        learntsAdjustCountdown = 100;
+        for (int restart = 0; ; restart++) {
+            checkInterrupted();
+            int status = search(luby(restart) * RESTART_UNIT);
+            if (status != 0) {
+                cancelUntil(0);
+                return status > 0;
+            }
+        }
+    }
+
+    /**
+     * @return the assumptions which made the last call of solve unsatisfiable
+     * (a subset of the given assumptions), empty if the clauses are unsatisfiable
+     * without any assumption
+     */
+    public int[] getFailedAssumptions() {
+        return failedAssumptions;
+    }
+
+    /**
+     * @return false if the clauses are unsatisfiable, regardless of the assumptions
+     */
+    public boolean isOk() {
+        return ok;
+    }
+
+    /**
+     * @return the model found by the last call of solve, as DIMACS literals
+     * (the ith value is i + 1 if the variable is true and -(i + 1) otherwise)
+     */
+    public int[] getModel() {
+        return model;
+    }
+
+    public long getNoConflicts() {
+        return noConflicts;
+    }
+
+    public long getNoDecisions() {
+        return noDecisions;
+    }
+
+    public long getNoPropagations() {
+        return noPropagations;
+    }
+
+    /**
+     * Run the CDCL loop until a model is found, the clauses are refuted
+     * or the number of conflicts reaches the given limit
+     * @param conflictLimit the maximum number of conflicts before restarting
+     * @return 1 if satisfiable, -1 if unsatisfiable and 0 for a restart
+     */
+    private int search(long conflictLimit) {
+        long conflicts = 0;
+        int[] learntBuffer = new int[Math.max(1, noVariables)];
+
+        while (true) {
+            Clause conflict = propagate();
+            if (conflict != null) {
+                noConflicts++;
+                conflicts++;
+                // counted over the whole search, since most restarts are shorter than the interval
+                if (noConflicts % INTERRUPT_CHECK_INTERVAL == 0) {
+                    checkInterrupted();
+                }
+                if (decisionLevel == 0) {
+                    ok = false;
+                    return -1;
+                }
+                int learntSize = analyze(conflict, learntBuffer);
+                int backtrackLevel = learntSize == 1 ? 0 : level[learntBuffer[1] >> 1];
+                cancelUntil(backtrackLevel);
+                if (learntSize == 1) {
+                    enqueue(learntBuffer[0], null);
+                } else {
+                    Clause learnt = new Clause(Arrays.copyOf(learntBuffer, learntSize), true);
+                    learnts.add(learnt);
+                    attach(learnt);
+                    bumpClause(learnt);
+                    enqueue(learnt.literals[0], learnt);
+                }
+                variableIncrement /= variableDecay;
+                clauseIncrement /= clauseDecay;
+                if (--learntsAdjustCountdown == 0) {
+                    learntsAdjustInterval *= 1.5;
+                    learntsAdjustCountdown = (int) learntsAdjustInterval;
+                    maxLearnts *= 1.1;
+                }
+            } else {
+                if (conflicts >= conflictLimit) {
+                    cancelUntil(0);
+                    return 0;
+                }
+                if (learnts.size() - trailSize >= maxLearnts) {
+                    reduceLearnts();
+                }
+
+                // the first decision levels are used for the assumptions
+                int next = -1;
+                while (decisionLevel < assumptions.length) {
+                    int assumption = assumptions[decisionLevel];
+                    if (value(assumption) == TRUE) {
+                        // already true, open an empty decision level
+                        trailLimits[decisionLevel++] = trailSize;
+                    } else if (value(assumption) == FALSE) {
+                        analyzeFinal(assumption ^ 1);
+                        return -1;
+                    } else {
+                        next = assumption;
+                        break;
+                    }
+                }
+
+                if (next < 0) {
+                    next = pickBranchLiteral();
+                }
+                if (next < 0) {
+                    // every variable is assigned without conflict, keep the model
+                    model = new int[noVariables];
+                    for (int v = 0; v < noVariables; v++) {
+                        model[v] = assigns[v] == TRUE ? v + 1 : -(v + 1);
+                    }
+                    return 1;
+                }
+                noDecisions++;
+                // a long search without conflicts is checked as well
+                if (noDecisions % INTERRUPT_CHECK_INTERVAL == 0) {
+                    checkInterrupted();
+                }
+                trailLimits[decisionLevel++] = trailSize;
+                enqueue(next, null);
+            }
+        }
+    }
+
+    /**
+     * Stop the search if the thread was interrupted, leaving the solver at level 0
+     * @throws CancellationException if the thread is interrupted
+     */
+    private void checkInterrupted() {
+        if (Thread.currentThread().isInterrupted()) {
+            cancelUntil(0);
+            throw new CancellationException("Interrupted while searching");
+        }
+    }
+
+    /**
+     * Propagate all the enqueued literals, using the watched literals scheme
+     * @return the conflicting clause, or null if there is no conflict
+     */
+    private Clause propagate() {
+        while (propagationHead < trailSize) {
+            int falseLiteral = trail[propagationHead++] ^ 1;
+            Clause[] watchList = watches[falseLiteral];
+            int[] blockerList = blockers[falseLiteral];
+            int size = noWatches[falseLiteral];
+            int i = 0;
+            int j = 0;
+            noPropagations++;
+
+            while (i < size) {
+                int blocker = blockerList[i];
+                Clause c = watchList[i++];
+                if (value(blocker) == TRUE) {
+                    blockerList[j] = blocker;
+                    watchList[j++] = c;
+                    continue;
+                }
+                if (c.deleted) {
+                    continue;
+                }
+                int[] literals = c.literals;
+                // make sure the false literal is the second one
+                if (literals[0] == falseLiteral) {
+                    literals[0] = literals[1];
+                    literals[1] = falseLiteral;
+                }
+                int first = literals[0];
+                if (first != blocker && value(first) == TRUE) {
+                    blockerList[j] = first;
+                    watchList[j++] = c;
+                    continue;
+                }
+
+                // look for a new literal to watch
+                boolean found = false;
+                for (int k = 2; k < literals.length; k++) {
+                    if (value(literals[k]) != FALSE) {
+                        literals[1] = literals[k];
+                        literals[k] = falseLiteral;
+                        watch(literals[1], c, first);
+                        found = true;
+                        break;
+                    }
+                }
+                if (found) {
+                    continue;
+                }
+
+                // the clause is unit or conflicting
+                blockerList[j] = first;
+                watchList[j++] = c;
+                if (value(first) == FALSE) {
+                    while (i < size) {
+                        blockerList[j] = blockerList[i];
+                        watchList[j++] = watchList[i++];
+                    }
+                    noWatches[falseLiteral] = j;
+                    propagationHead = trailSize;
+                    return c;
+                }
+                enqueue(first, c);
+            }
+            noWatches[falseLiteral] = j;
+        }
+        return null;
+    }
+
+    /**
+     * Analyze a conflict and build the first-UIP learnt clause
+     * @param conflict the conflicting clause
+     * @param out the buffer receiving the learnt clause, with the asserting literal first
+     * and the literal of the highest remaining level second
+     * @return the size of the learnt clause
+     */
+    private int analyze(Clause conflict, int[] out) {
+        int pathCount = 0;
+        int literal = -1;
+        int index = trailSize - 1;
+        int size = 1;
+        Clause c = conflict;
+
+        do {
+            if (c.learnt) {
+                bumpClause(c);
+            }
+            for (int j = literal == -1 ? 0 : 1; j < c.literals.length; j++) {
+                int q = c.literals[j];
+                int v = q >> 1;
+                if (!seen[v] && level[v] > 0) {
+                    seen[v] = true;
+                    bumpVariable(v);
+                    if (level[v] >= decisionLevel) {
+                        pathCount++;
+                    } else {
+                        out[size++] = q;
+                    }
+                }
+            }
+            // select the next literal of the current level to look at
+            while (!seen[trail[index] >> 1]) {
+                index--;
+            }
+            literal = trail[index--];
+            c = reason[literal >> 1];
+            seen[literal >> 1] = false;
+            pathCount--;
+        } while (pathCount > 0);
+        out[0] = literal ^ 1;
+
+        // drop the literals implied by other literals of the clause
+        int[] original = Arrays.copyOf(out, size);
+        int newSize = 1;
+        for (int i = 1; i < size; i++) {
+            Clause r = reason[out[i] >> 1];
+            boolean redundant = r != null;
+            if (r != null) {
+                for (int k = 1; k < r.literals.length; k++) {
+                    int v = r.literals[k] >> 1;
+                    if (!seen[v] && level[v] > 0) {
+                        redundant = false;
+                        break;
+                    }
+                }
+            }
+            if (!redundant) {
+                out[newSize++] = out[i];
+            }
+        }
+        for (int i = 1; i < original.length; i++) {
+            seen[original[i] >> 1] = false;
+        }
+
+        // move the literal of the highest level on the second position
+        if (newSize > 1) {
+            int maxIndex = 1;
+            for (int i = 2; i < newSize; i++) {
+                if (level[out[i] >> 1] > level[out[maxIndex] >> 1]) {
+                    maxIndex = i;
+                }
+            }
+            int aux = out[1];
+            out[1] = out[maxIndex];
+            out[maxIndex] = aux;
+        }
+        return newSize;
+    }
+
+    /**
+     * Find the assumptions responsible for a false assumption, by going back
+     * through the reasons of the literals on the trail
+     * @param literal the negation of the false assumption
+     */
+    private void analyzeFinal(int literal) {
+        List<Integer> failed = new ArrayList<>();
+        failed.add(literal ^ 1);
+        if (decisionLevel > 0) {
+            seen[literal >> 1] = true;
+            for (int i = trailSize - 1; i >= trailLimits[0]; i--) {
+                int v = trail[i] >> 1;
+                if (seen[v]) {
+                    Clause r = reason[v];
+                    if (r == null) {
+                        // a decision of the assumption levels is an assumption (possibly the
+                        // opposite of the false one)
+                        failed.add(trail[i]);
+                    } else {
+                        for (int k = 1; k < r.literals.length; k++) {
+                            if (level[r.literals[k] >> 1] > 0) {
+                                seen[r.literals[k] >> 1] = true;
+                            }
+                        }
+                    }
+                    seen[v] = false;
+                }
+            }
+            seen[literal >> 1] = false;
+        }
+        failedAssumptions = new int[failed.size()];
+        for (int i = 0; i < failed.size(); i++) {
+            int failedLiteral = failed.get(i);
+            failedAssumptions[i] = (failedLiteral & 1) == 0
+                    ? (failedLiteral >> 1) + 1 : -((failedLiteral >> 1) + 1);
+        }
+    }
+
+    /**
+     * Undo all the assignments above the given decision level
+     * @param targetLevel the decision level to go back to
+     */
+    private void cancelUntil(int targetLevel) {
+        if (decisionLevel <= targetLevel) {
+            return;
+        }
+        for (int c = trailSize - 1; c >= trailLimits[targetLevel]; c--) {
+            int v = trail[c] >> 1;
+            assigns[v] = UNDEFINED;
+            reason[v] = null;
+            savedNegative[v] = (trail[c] & 1) == 1;
+            if (heapIndex[v] < 0) {
+                heapInsert(v);
+            }
+        }
+        trailSize = trailLimits[targetLevel];
+        propagationHead = trailSize;
+        decisionLevel = targetLevel;
+    }
+
+    /**
+     * Remove half of the learnt clauses, the ones with the lowest activity
+     */
+    private void reduceLearnts() {
+        learnts.sort((first, second) -> Double.compare(first.activity, second.activity));
+        int limit = learnts.size() / 2;
+        List<Clause> kept = new ArrayList<>(learnts.size() - limit);
+        for (int i = 0; i < learnts.size(); i++) {
+            Clause c = learnts.get(i);
+            if (i < limit && c.literals.length > 2 && !isLocked(c)) {
+                c.deleted = true;
+            } else {
+                kept.add(c);
+            }
+        }
+        learnts.clear();
+        learnts.addAll(kept);
+    }
+
+    private boolean isLocked(Clause c) {
+        int v = c.literals[0] >> 1;
+        return reason[v] == c && value(c.literals[0]) == TRUE;
+    }
+
+    private int pickBranchLiteral() {
+        if (random != null && heapSize > 0 && random.nextDouble() < RANDOM_DECISION_FREQUENCY) {
+            // the variable stays within the heap, and is skipped once assigned
+            int v = heap[random.nextInt(heapSize)];
+            if (assigns[v] == UNDEFINED) {
+                return 2 * v + (savedNegative[v] ? 1 : 0);
+            }
+        }
+        while (heapSize > 0) {
+            int v = heapRemoveMax();
+            if (assigns[v] == UNDEFINED) {
+                return 2 * v + (savedNegative[v] ? 1 : 0);
+            }
+        }
+        return -1;
+    }
+
+    private void enqueue(int literal, Clause from) {
+        int v = literal >> 1;
+        assigns[v] = (literal & 1) == 0 ? TRUE : FALSE;
+        level[v] = decisionLevel;
+        reason[v] = from;
+        trail[trailSize++] = literal;
+    }
+
+    private void attach(Clause c) {
+        watch(c.literals[0], c, c.literals[1]);
+        watch(c.literals[1], c, c.literals[0]);
+    }
+
+    private void watch(int literal, Clause c, int blocker) {
+        if (noWatches[literal] == watches[literal].length) {
+            watches[literal] = Arrays.copyOf(watches[literal], 2 * noWatches[literal]);
+            blockers[literal] = Arrays.copyOf(blockers[literal], 2 * noWatches[literal]);
+        }
+        blockers[literal][noWatches[literal]] = blocker;
+        watches[literal][noWatches[literal]++] = c;
+    }
+
+    private byte value(int literal) {
+        byte value = assigns[literal >> 1];
+        return (literal & 1) == 0 ? value : (byte) -value;
+    }
+
+    /**
+     * Convert a DIMACS literal to the internal encoding (2 * variable + sign)
+     */
+    private static int toLiteral(int dimacs) {
+        return dimacs > 0 ? 2 * (dimacs - 1) : 2 * (-dimacs - 1) + 1;
+    }
+
+    private void bumpVariable(int v) {
+        activity[v] += variableIncrement;
+        if (activity[v] > 1e100) {
+            for (int i = 0; i < noVariables; i++) {
+                activity[i] *= 1e-100;
+            }
+            variableIncrement *= 1e-100;
+        }
+        if (heapIndex[v] >= 0) {
+            heapUp(heapIndex[v]);
+        }
+    }
+
+    private void bumpClause(Clause c) {
+        c.activity += clauseIncrement;
+        if (c.activity > 1e20) {
+            for (Clause learnt : learnts) {
+                learnt.activity *= 1e-20;
+            }
+            clauseIncrement *= 1e-20;
+        }
+    }
+
+    /**
+     * The value of the Luby sequence (1 1 2 1 1 2 4 ...) at the given index
+     */
+    private static long luby(int index) {
+        int size = 1;
+        int sequence = 0;
+        while (size < index + 1) {
+            sequence++;
+            size = 2 * size + 1;
+        }
+        while (size - 1 != index) {
+            size = (size - 1) >> 1;
+            sequence--;
+            index = index % size;
+        }
+        return 1L << sequence;
+    }
+
+    private void heapInsert(int v) {
+        heapIndex[v] = heapSize;
+        heap[heapSize++] = v;
+        heapUp(heapIndex[v]);
+    }
+
+    private int heapRemoveMax() {
+        int top = heap[0];
+        heapIndex[top] = -1;
+        heapSize--;
+        if (heapSize > 0) {
+            heap[0] = heap[heapSize];
+            heapIndex[heap[0]] = 0;
+            heapDown(0);
+        }
+        return top;
+    }
+
+    private void heapUp(int position) {
+        int v = heap[position];
+        while (position > 0) {
+            int parent = (position - 1) >> 1;
+            if (activity[heap[parent]] >= activity[v]) {
+                break;
+            }
+            heap[position] = heap[parent];
+            heapIndex[heap[position]] = position;
+            position = parent;
+        }
+        heap[position] = v;
+        heapIndex[v] = position;
+    }
+
+    private void heapDown(int position) {
+        int v = heap[position];
+        while (2 * position + 1 < heapSize) {
+            int child = 2 * position + 1;
+            if (child + 1 < heapSize && activity[heap[child + 1]] > activity[heap[child]]) {
+                child++;
+            }
+            if (activity[heap[child]] <= activity[v]) {
+                break;
+            }
+            heap[position] = heap[child];
+            heapIndex[heap[position]] = position;
+            position = child;
+        }
+        heap[position] = v;
+        heapIndex[v] = position;
+    }
+}
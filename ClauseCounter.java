@@ -0,0 +1,59 @@
+/**
+ * Sink which only counts the variables, clauses and literals it receives, without
+ * keeping them (e.g. to compare the sizes of the encodings of a question)
+ */
+public class ClauseCounter implements ClauseSink {
+    private int noVariables;
+    private long noClauses;
+    private long noLiterals;
+
+    /**
+     * @param noVariables the number of variables used within the question
+     */
+    public ClauseCounter(final int noVariables) {
+        this.noVariables = noVariables;
+    }
+
+    @Override
+    public void addLiteral(int literal) {
+        noLiterals++;
+        noVariables = Math.max(noVariables, Math.abs(literal));
+    }
+
+    @Override
+    public void endClause() {
+        noClauses++;
+    }
+
+    /**
+     * @return always true, since the clauses are not solved
+     */
+    @Override
+    public boolean addClause(int... clause) {
+        for (int literal : clause) {
+            addLiteral(literal);
+        }
+        endClause();
+        return true;
+    }
+
+    @Override
+    public int newVariable() {
+        return ++noVariables;
+    }
+
+    @Override
+    public int getNoVariables() {
+        return noVariables;
+    }
+
+    @Override
+    public long getNoClauses() {
+        return noClauses;
+    }
+
+    @Override
+    public long getNoLiterals() {
+        return noLiterals;
+    }
+}
@@ -0,0 +1,44 @@
+/**
+ * Interface of the objects receiving the clauses of a question for the
+ * oracle (an in-memory formula, a solver or a DIMACS file)
+ */
+public interface ClauseSink {
+    /**
+     * Add a literal to the clause currently being written
+     * @param literal the literal, encoded as in DIMACS (negative if negated)
+     */
+    void addLiteral(int literal);
+
+    /**
+     * Mark the end of the clause currently being written
+     */
+    void endClause();
+
+    /**
+     * Add a whole clause
+     * @param clause the literals of the clause
+     * @return false if the clauses are already known to be unsatisfiable
+     */
+    boolean addClause(int... clause);
+
+    /**
+     * Reserve a new (auxiliary) variable
+     * @return the index of the new variable
+     */
+    int newVariable();
+
+    /**
+     * @return the number of variables used so far
+     */
+    int getNoVariables();
+
+    /**
+     * @return the number of clauses received so far
+     */
+    long getNoClauses();
+
+    /**
+     * @return the number of literals received so far
+     */
+    long getNoLiterals();
+}
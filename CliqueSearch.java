@@ -0,0 +1,373 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Branch and bound search of cliques, running inside the JVM instead of asking the oracle
+ * (in the style of Tomita's MCQ and San Segundo's BBMC): the vertices are renumbered in
+ * decreasing order of their degree and their neighbourhoods kept as bitsets, so that the
+ * candidates of a branch are the intersection of two bitsets; the candidates are colored
+ * greedily, and a branch is cut once the clique plus the number of colors of its candidates
+ * cannot beat the greatest clique found. With the "parallel" system property, the branches
+ * of the first level are searched on the fork-join pool
+ */
+public class CliqueSearch {
+    private final int noVertices;
+    /**
+     * Number of words of each bitset
+     */
+    private final int words;
+    /**
+     * The neighbours of each vertex, in the search's numbering (0..n-1)
+     */
+    private final long[][] adjacency;
+    /**
+     * The vertex of the graph (1..n) of each vertex of the search
+     */
+    private final int[] vertexOf;
+    /**
+     * Whether the branches of the first level are searched on the fork-join pool
+     */
+    private final boolean parallel = Boolean.getBoolean(Constants.PARALLEL_PROPERTY);
+
+    /**
+     * The greatest clique found (in the search's numbering) and its dimension; only the
+     * cliques with more than bestSize vertices are searched
+     */
+    private int[] bestClique = new int[0];
+    private volatile int bestSize;
+    /**
+     * The dimension at which the search stops
+     */
+    private int target;
+    /**
+     * Set once the search should stop: the target was reached, or it was cancelled
+     */
+    private volatile boolean stopped;
+    private volatile boolean cancelled;
+    private final LongAdder noNodes = new LongAdder();
+
+    /**
+     * @param graph the graph whose cliques are searched
+     */
+    public CliqueSearch(final Graph graph) {
+        this(graph, false);
+    }
+
+    /**
+     * @param graph the graph
+     * @param complement whether the cliques are searched within the complementary graph
+     * (e.g. the independent sets of the social network, for Reclame), which is written
+     * directly in the bitsets
+     */
+    public CliqueSearch(final Graph graph, final boolean complement) {
+        noVertices = graph.getNoVertices();
+        words = (noVertices >> 6) + 1;
+        adjacency = new long[noVertices][words];
+
+        // the vertices of greater degree first
+        Integer[] order = new Integer[noVertices];
+        int[] degree = new int[noVertices + 1];
+        for (int v = 1; v <= noVertices; v++) {
+            order[v - 1] = v;
+            degree[v] = complement ? noVertices - 1 - graph.degree(v) : graph.degree(v);
+        }
+        Arrays.sort(order, (first, second) -> degree[second] - degree[first]);
+        vertexOf = new int[noVertices];
+        int[] indexOf = new int[noVertices + 1];
+        for (int i = 0; i < noVertices; i++) {
+            vertexOf[i] = order[i];
+            indexOf[order[i]] = i;
+        }
+
+        for (int i = 0; i < noVertices; i++) {
+            long[] row = adjacency[i];
+            if (complement) {
+                // all the other vertices, then remove the neighbours within the graph
+                Arrays.fill(row, -1L);
+                row[words - 1] = (1L << (noVertices & 63)) - 1;
+                clear(row, i);
+            }
+            int v = vertexOf[i];
+            for (int w = graph.nextNeighbour(v, 1); w != -1; w = graph.nextNeighbour(v, w + 1)) {
+                if (complement) {
+                    clear(row, indexOf[w]);
+                } else {
+                    row[indexOf[w] >> 6] |= 1L << indexOf[w];
+                }
+            }
+        }
+    }
+
+    /**
+     * Search a clique with at least minimum vertices, stopping at the first one with
+     * target vertices (or at the greatest one if there is none); the thread asking can be
+     * interrupted (e.g. at the deadline of the question), the greatest clique found so far
+     * then being kept
+     * @param minimum the dimension under which the cliques are not searched
+     * @param target the dimension at which the search stops
+     * @return true if a clique with at least minimum vertices was found
+     * @throws CancellationException if the thread is interrupted while searching
+     */
+    public boolean search(int minimum, int target) throws InterruptedException {
+        this.target = target;
+        bestSize = Math.max(minimum, 0) - 1;
+        if (bestSize < 0) {
+            // the empty clique is enough
+            bestSize = 0;
+            return true;
+        }
+        if (target <= bestSize) {
+            return false;
+        }
+        bestClique = new int[0];
+        stopped = false;
+        cancelled = false;
+
+        long[] candidates = new long[words];
+        for (int i = 0; i < noVertices; i++) {
+            candidates[i >> 6] |= 1L << i;
+        }
+        if (parallel && noVertices > 1) {
+            searchInParallel(candidates);
+        } else {
+            Branch branch = new Branch();
+            branch.expand(0, candidates);
+            noNodes.add(branch.noLocalNodes);
+        }
+        if (cancelled) {
+            throw new CancellationException("Interrupted while searching");
+        }
+        return bestClique.length >= minimum;
+    }
+
+    /**
+     * Search each branch of the first level as a task on the fork-join pool; the asking
+     * thread waits for them, and stops them if it is interrupted
+     * @param candidates all the vertices
+     */
+    private void searchInParallel(long[] candidates) throws InterruptedException {
+        Branch root = new Branch();
+        int[] order = new int[noVertices];
+        int[] colors = new int[noVertices];
+        int noCandidates = root.colorSort(candidates, order, colors);
+
+        // the last branches have the most colors, hence the most chances of a great clique:
+        // they are submitted first
+        List<ForkJoinTask<?>> branches = new ArrayList<>();
+        long[] before = candidates.clone();
+        for (int i = noCandidates - 1; i >= 0; i--) {
+            // the branch of order[i] searches the vertices before it, as in the sequential search
+            int v = order[i];
+            int color = colors[i];
+            clear(before, v);
+            long[] branchCandidates = new long[words];
+            for (int w = 0; w < words; w++) {
+                branchCandidates[w] = before[w] & adjacency[v][w];
+            }
+            branches.add(ForkJoinPool.commonPool().submit(() -> {
+                if (!stopped && color > bestSize) {
+                    new Branch().branch(v, branchCandidates);
+                }
+            }));
+        }
+        try {
+            for (ForkJoinTask<?> branch : branches) {
+                branch.get();
+            }
+        } catch (InterruptedException e) {
+            cancelled = true;
+            stopped = true;
+            throw e;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            noNodes.increment();
+        }
+    }
+
+    /**
+     * The state of a thread searching the branches: the clique of the current branch, the
+     * candidates and their coloring at each depth, allocated once per depth, and the
+     * bitsets used while coloring
+     */
+    private class Branch {
+        private final int[] clique = new int[noVertices + 1];
+        private final List<long[]> remainingByDepth = new ArrayList<>();
+        private final List<long[]> nextByDepth = new ArrayList<>();
+        private final List<int[]> ordersByDepth = new ArrayList<>();
+        private final List<int[]> colorsByDepth = new ArrayList<>();
+        private final long[] uncolored = new long[words];
+        private final long[] available = new long[words];
+        /**
+         * The thread checked for interruptions: the one which asked the question, or none
+         * on the fork-join pool, whose tasks are stopped by the asking thread
+         */
+        private final Thread asking = parallel ? null : Thread.currentThread();
+        private long noLocalNodes;
+
+        /**
+         * Search the cliques extending the clique's first size vertices with the candidates
+         * (connected to all of them), the candidates being colored first
+         * @param size the dimension of the clique
+         * @param candidates the candidates (left unchanged)
+         */
+        void expand(int size, long[] candidates) {
+            if (stopped || isCancelled()) {
+                return;
+            }
+            while (ordersByDepth.size() <= size) {
+                remainingByDepth.add(new long[words]);
+                nextByDepth.add(new long[words]);
+                ordersByDepth.add(new int[noVertices]);
+                colorsByDepth.add(new int[noVertices]);
+            }
+            long[] remaining = remainingByDepth.get(size);
+            long[] next = nextByDepth.get(size);
+            int[] order = ordersByDepth.get(size);
+            int[] colors = colorsByDepth.get(size);
+            System.arraycopy(candidates, 0, remaining, 0, words);
+            int noCandidates = colorSort(remaining, order, colors);
+
+            for (int i = noCandidates - 1; i >= 0 && !stopped; i--) {
+                if (size + colors[i] <= bestSize) {
+                    // the colors are in increasing order, the other candidates are cut as well
+                    return;
+                }
+                int v = order[i];
+                clique[size] = v;
+                boolean empty = true;
+                for (int w = 0; w < words; w++) {
+                    next[w] = remaining[w] & adjacency[v][w];
+                    empty &= next[w] == 0;
+                }
+                if (empty || size + 1 >= target) {
+                    record(clique, size + 1);
+                } else {
+                    expand(size + 1, next);
+                }
+                clear(remaining, v);
+            }
+        }
+
+        /**
+         * Search a branch of the first level
+         * @param v the vertex of the branch
+         * @param candidates the candidates connected to v
+         */
+        void branch(int v, long[] candidates) {
+            clique[0] = v;
+            if (count(candidates) == 0 || target <= 1) {
+                record(clique, 1);
+            } else {
+                expand(1, candidates);
+            }
+            noNodes.add(noLocalNodes);
+        }
+
+        /**
+         * Count a node, and check whether the asking thread was interrupted (at each node,
+         * since coloring the candidates of a large graph outweighs the check by far)
+         * @return true if the search is cancelled
+         */
+        private boolean isCancelled() {
+            noLocalNodes++;
+            if (asking != null && asking.isInterrupted()) {
+                cancelled = true;
+                stopped = true;
+            }
+            return cancelled;
+        }
+
+        /**
+         * Color the candidates greedily, in the order of the search's numbering: each color
+         * takes the first candidate left, then the next one not connected to it, and so on
+         * @param candidates the candidates (left unchanged)
+         * @param order receives the candidates, by color
+         * @param colors receives the color (from 1) of each candidate within the order
+         * @return the number of candidates
+         */
+        int colorSort(long[] candidates, int[] order, int[] colors) {
+            System.arraycopy(candidates, 0, uncolored, 0, words);
+            int noColored = 0;
+            int color = 0;
+            int first = 0;
+            while (true) {
+                while (first < words && uncolored[first] == 0) {
+                    first++;
+                }
+                if (first == words) {
+                    return noColored;
+                }
+                color++;
+                System.arraycopy(uncolored, first, available, first, words - first);
+                for (int w = first; w < words; w++) {
+                    while (available[w] != 0) {
+                        int v = (w << 6) + Long.numberOfTrailingZeros(available[w]);
+                        order[noColored] = v;
+                        colors[noColored++] = color;
+                        uncolored[w] &= ~(1L << v);
+                        available[w] &= ~(1L << v);
+                        // the neighbours of v need another color
+                        long[] neighbours = adjacency[v];
+                        for (int x = w; x < words; x++) {
+                            available[x] &= ~neighbours[x];
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Keep a clique if it is greater than the greatest one found
+     */
+    private synchronized void record(int[] clique, int size) {
+        if (size > bestSize) {
+            bestClique = Arrays.copyOf(clique, size);
+            bestSize = size;
+            if (size >= target) {
+                stopped = true;
+            }
+        }
+    }
+
+    private static void clear(long[] bits, int i) {
+        bits[i >> 6] &= ~(1L << i);
+    }
+
+    private static int count(long[] bits) {
+        int count = 0;
+        for (long word : bits) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * @return the vertices (1..n) of the greatest clique found, with at least minimum
+     * vertices if search returned true
+     */
+    public List<Integer> getClique() {
+        List<Integer> clique = new ArrayList<>(bestClique.length);
+        for (int v : bestClique) {
+            clique.add(vertexOf[v]);
+        }
+        return clique;
+    }
+
+    /**
+     * @return the number of nodes of the search tree (the colored candidate sets)
+     */
+    public long getNoNodes() {
+        return noNodes.sum();
+    }
+}
@@ -0,0 +1,40 @@
+/**
+ * View of the complement of a graph, without materialising it: the
+ * neighbours of a vertex are the non-neighbours within the original graph
+ */
+public class ComplementGraph implements Graph {
+    private final Graph original;
+
+    public ComplementGraph(final Graph original) {
+        this.original = original;
+    }
+
+    @Override
+    public int getNoVertices() {
+        return original.getNoVertices();
+    }
+
+    @Override
+    public boolean hasEdge(int v, int w) {
+        return v != w && !original.hasEdge(v, w);
+    }
+
+    @Override
+    public int degree(int v) {
+        return original.getNoVertices() - 1 - original.degree(v);
+    }
+
+    @Override
+    public int nextNeighbour(int v, int from) {
+        return original.nextNonNeighbour(v, from);
+    }
+
+    @Override
+    public int nextNonNeighbour(int v, int from) {
+        return original.nextNeighbour(v, from);
+    }
+
+    public Graph getOriginal() {
+        return original;
+    }
+}
@@ -5,12 +5,74 @@ public class Constants {
     private Constants() {}
 
     public static final String P_CNF = "p cnf";
+    public static final String P_WCNF = "p wcnf";
     public static final String SPACE = " ";
     public static final String RETELE_SAT = "sat";
     public static final String CNF_EXTENSION = ".cnf";
     public static final String NEW_LINE = "\n";
     public static final int ZERO = 0;
     public static final String ORACLE_SOL = "sat.sol";
+    public static final String SOL_EXTENSION = ".sol";
+    public static final String STANDARD_STREAM = "-";
+    public static final String SHARED_MEMORY_DIRECTORY = "/dev/shm";
     public static final String TRUE = "True";
     public static final String FALSE = "False";
+    public static final String UNKNOWN = "Unknown";
+    public static final String ERROR = "Error";
+    public static final String OPTIMAL = "optimal";
+    public static final String NOT_PROVEN = "not proven";
+    public static final String ORACLE_PROPERTY = "oracle";
+    public static final String CDCL_ORACLE = "cdcl";
+    public static final String PYTHON_ORACLE = "python";
+    public static final String ORACLE_TRANSPORT_PROPERTY = "oracle.transport";
+    public static final String FILES_TRANSPORT = "files";
+    public static final String TEMP_TRANSPORT = "temp";
+    public static final String PIPE_TRANSPORT = "pipe";
+    public static final String SERVER_TRANSPORT = "server";
+    public static final String SERVER_OPTION = "--server";
+    public static final String ORACLE_WORKERS_PROPERTY = "oracle.workers";
+    public static final String ORACLE_TMPDIR_PROPERTY = "oracle.tmpdir";
+    public static final String ORACLE_TIMEOUT_PROPERTY = "oracle.timeout";
+    public static final String TASK_TIMEOUT_PROPERTY = "task.timeout";
+    public static final String PORTFOLIO_ORACLE = "portfolio";
+    public static final String PORTFOLIO_PROPERTY = "portfolio";
+    public static final String DEFAULT_PORTFOLIO = "cdcl,cdcl:1,cdcl:2,cdcl:3";
+    public static final String RECLAME_INCREMENTAL_PROPERTY = "reclame.incremental";
+    public static final String RECLAME_SEARCH_PROPERTY = "reclame.search";
+    public static final String LINEAR_SEARCH = "linear";
+    public static final String BINARY_SEARCH = "binary";
+    public static final String MAXSAT_SEARCH = "maxsat";
+    public static final String STATS_PROPERTY = "stats";
+    public static final String AMO_ENCODING_PROPERTY = "encoding.amo";
+    public static final String AMK_ENCODING_PROPERTY = "encoding.amk";
+    public static final String COMPARE_ENCODINGS_PROPERTY = "encoding.compare";
+    public static final String RETELE_ENCODING_PROPERTY = "retele.encoding";
+    public static final String RETELE_ENGINE_PROPERTY = "retele.engine";
+    public static final String RETELE_LAZY_PROPERTY = "retele.lazy";
+    public static final String RECLAME_ENGINE_PROPERTY = "reclame.engine";
+    public static final String SAT_ENGINE = "sat";
+    public static final String BNB_ENGINE = "bnb";
+    public static final String POSITIONAL_ENCODING = "positional";
+    public static final String VERTEX_ENCODING = "vertex";
+    public static final String STREAMING_PROPERTY = "dimacs.streaming";
+    public static final String REGISTRE_COMPONENTS_PROPERTY = "registre.components";
+    public static final String REGISTRE_MINIMIZE_PROPERTY = "registre.minimize";
+    public static final String PREPROCESSING_PROPERTY = "preprocessing";
+    public static final String SYMMETRY_BREAKING_PROPERTY = "symmetry.breaking";
+    public static final String CACHE_DIR_PROPERTY = "cache.dir";
+    public static final String CACHE_SIZE_PROPERTY = "cache.size";
+    public static final String PARALLEL_PROPERTY = "parallel";
+    public static final String METRICS_PROPERTY = "metrics";
+    public static final String METRICS_STDERR = "stderr";
+    public static final String METRICS_JFR = "jfr";
+    public static final String BATCH_THREADS_PROPERTY = "batch.threads";
+    public static final String RETELE_TASK = "retele";
+    public static final String RECLAME_TASK = "reclame";
+    public static final String REGISTRE_TASK = "registre";
+    public static final String GRAPH_PROPERTY = "graph";
+    public static final String HEURISTICS_PROPERTY = "heuristics";
+    public static final String HEURISTICS_TIMEOUT_PROPERTY = "heuristics.timeout";
+    public static final String AUTO_GRAPH = "auto";
+    public static final String BITSET_GRAPH = "bitset";
+    public static final String CSR_GRAPH = "csr";
 }
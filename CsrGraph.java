@@ -0,0 +1,106 @@
+import java.util.Arrays;
+
+/**
+ * Graph kept in the compressed sparse row format: the sorted neighbours of all
+ * the vertices, one after the other, with the offset of each vertex's list
+ */
+public class CsrGraph implements Graph {
+    private final int noVertices;
+    /**
+     * The neighbours of v are neighbours[offsets[v]..offsets[v + 1])
+     */
+    private final int[] offsets;
+    private final int[] neighbours;
+
+    /**
+     * Build the graph from its list of edges; duplicated edges and loops are ignored
+     * @param n the number of vertices
+     * @param m the number of edges
+     * @param from the first end of each edge
+     * @param to the second end of each edge
+     */
+    public CsrGraph(final int n, final int m, final int[] from, final int[] to) {
+        this.noVertices = n;
+        int[] counts = new int[n + 2];
+        for (int i = 0; i < m; i++) {
+            if (from[i] != to[i]) {
+                counts[from[i]]++;
+                counts[to[i]]++;
+            }
+        }
+        int[] starts = new int[n + 2];
+        for (int v = 1; v <= n + 1; v++) {
+            starts[v] = starts[v - 1] + counts[v - 1];
+        }
+        int[] all = new int[starts[n + 1]];
+        int[] fill = Arrays.copyOf(starts, n + 2);
+        for (int i = 0; i < m; i++) {
+            if (from[i] != to[i]) {
+                all[fill[from[i]]++] = to[i];
+                all[fill[to[i]]++] = from[i];
+            }
+        }
+
+        // sort each list and drop the duplicates
+        this.offsets = new int[n + 2];
+        int size = 0;
+        for (int v = 0; v <= n; v++) {
+            offsets[v] = size;
+            Arrays.sort(all, starts[v], starts[v + 1]);
+            for (int i = starts[v]; i < starts[v + 1]; i++) {
+                if (i == starts[v] || all[i] != all[i - 1]) {
+                    all[size++] = all[i];
+                }
+            }
+        }
+        offsets[n + 1] = size;
+        this.neighbours = Arrays.copyOf(all, size);
+    }
+
+    @Override
+    public int getNoVertices() {
+        return noVertices;
+    }
+
+    @Override
+    public boolean hasEdge(int v, int w) {
+        return Arrays.binarySearch(neighbours, offsets[v], offsets[v + 1], w) >= 0;
+    }
+
+    @Override
+    public int degree(int v) {
+        return offsets[v + 1] - offsets[v];
+    }
+
+    @Override
+    public int nextNeighbour(int v, int from) {
+        int index = firstIndexFrom(v, from);
+        return index < offsets[v + 1] ? neighbours[index] : -1;
+    }
+
+    @Override
+    public int nextNonNeighbour(int v, int from) {
+        int index = firstIndexFrom(v, from);
+        int w = from;
+        // skip the candidates found within the sorted list of neighbours
+        while (w <= noVertices) {
+            if (w == v) {
+                w++;
+            } else if (index < offsets[v + 1] && neighbours[index] == w) {
+                index++;
+                w++;
+            } else {
+                return w;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return the index of the first neighbour of v which is >= from
+     */
+    private int firstIndexFrom(int v, int from) {
+        int index = Arrays.binarySearch(neighbours, offsets[v], offsets[v + 1], from);
+        return index >= 0 ? index : -index - 1;
+    }
+}
@@ -0,0 +1,16 @@
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Interface of the formulas kept in memory which can be written in the DIMACS format
+ * (CNF, or WCNF for the weighted ones), e.g. for the python oracle
+ */
+public interface DimacsFormula {
+    /**
+     * Write the formula, header first
+     * @param channel the channel (a file, or the standard input of the python oracle),
+     * closed once the formula is written
+     * @return the number of bytes written
+     */
+    long writeDimacs(WritableByteChannel channel) throws IOException;
+}
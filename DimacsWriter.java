@@ -0,0 +1,296 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Class which streams clauses in the DIMACS format to a file (or a pipe); the literals
+ * are formatted straight into a reusable byte buffer, which is flushed through a
+ * channel, so no String is allocated while writing; weighted formulas (WCNF) are
+ * written the same way, each clause starting with its weight
+ */
+public class DimacsWriter implements ClauseSink, Closeable {
+    private static final int BUFFER_SIZE = 1 << 16;
+    /**
+     * Room for any literal: sign, ten digits and the separator
+     */
+    private static final int MAX_LITERAL_BYTES = 12;
+    /**
+     * Width of the header reserved when it is filled in afterwards
+     * ("p cnf" and two numbers of at most 19 digits)
+     */
+    private static final int HEADER_WIDTH = 48;
+
+    private final WritableByteChannel channel;
+    /**
+     * The path of the file, or null when writing to another channel
+     */
+    private final Path path;
+    private final byte[] bytes = new byte[BUFFER_SIZE];
+    private final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+    private int position;
+    /**
+     * Whether the header is written when the writer is closed, instead of
+     * being declared when the writer is created
+     */
+    private final boolean deferredHeader;
+    private final long declaredClauses;
+    /**
+     * The weight of the hard clauses of a weighted formula (WCNF), or 0 for a CNF formula
+     */
+    private final long top;
+    private int noVariables;
+    private long noClauses;
+    private long noLiterals;
+    private long noBytes;
+
+    private DimacsWriter(final Path path, final int noVariables, final long declaredClauses,
+                         final boolean deferredHeader) throws IOException {
+        this(FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING),
+                path, noVariables, declaredClauses, deferredHeader, 0);
+    }
+
+    private DimacsWriter(final WritableByteChannel channel, final Path path, final int noVariables,
+                         final long declaredClauses, final boolean deferredHeader, final long top) {
+        this.channel = channel;
+        this.path = path;
+        this.noVariables = noVariables;
+        this.declaredClauses = declaredClauses;
+        this.deferredHeader = deferredHeader;
+        this.top = top;
+
+        if (deferredHeader) {
+            // reserve the room of the header, filled in when the writer is closed
+            for (int i = 0; i < HEADER_WIDTH - 1; i++) {
+                bytes[position++] = ' ';
+            }
+            bytes[position++] = '\n';
+        } else {
+            writeHeader(noVariables, declaredClauses);
+        }
+    }
+
+    /**
+     * Create a writer whose header is written first, from counts computed beforehand;
+     * closing it checks that the declared number of clauses was written
+     * @param path the path of the file
+     * @param noVariables the number of variables
+     * @param noClauses the number of clauses
+     * @return the writer
+     */
+    public static DimacsWriter withHeader(Path path, int noVariables, long noClauses)
+            throws IOException {
+        return new DimacsWriter(path, noVariables, noClauses, false);
+    }
+
+    /**
+     * Create a writer over a channel which cannot be rewound (e.g. the standard input
+     * of another process), whose header is written first
+     * @param channel the channel, closed with the writer
+     * @param noVariables the number of variables
+     * @param noClauses the number of clauses
+     * @return the writer
+     */
+    public static DimacsWriter withHeader(WritableByteChannel channel, int noVariables,
+                                          long noClauses) {
+        return new DimacsWriter(channel, null, noVariables, noClauses, false, 0);
+    }
+
+    /**
+     * Create a writer of a weighted formula (WCNF), whose header is written first; each
+     * clause starts with its weight (see addWeight)
+     * @param channel the channel, closed with the writer
+     * @param noVariables the number of variables
+     * @param noClauses the number of clauses, hard and soft
+     * @param top the weight of the hard clauses, greater than the sum of the soft weights
+     * @return the writer
+     */
+    public static DimacsWriter withWeightedHeader(WritableByteChannel channel, int noVariables,
+                                                  long noClauses, long top) {
+        return new DimacsWriter(channel, null, noVariables, noClauses, false, top);
+    }
+
+    /**
+     * Create a writer whose header is filled in when it is closed, with the number of
+     * variables and clauses actually written
+     * @param path the path of the file
+     * @return the writer
+     */
+    public static DimacsWriter withDeferredHeader(Path path) throws IOException {
+        return new DimacsWriter(path, 0, -1, true);
+    }
+
+    @Override
+    public void addLiteral(int literal) {
+        if (position + MAX_LITERAL_BYTES > BUFFER_SIZE) {
+            flush();
+        }
+        writeInt(literal);
+        bytes[position++] = ' ';
+        noLiterals++;
+        int variable = Math.abs(literal);
+        if (variable > noVariables) {
+            noVariables = variable;
+        }
+    }
+
+    /**
+     * Start a clause of a weighted formula with its weight
+     * @param weight the weight (top for a hard clause)
+     */
+    public void addWeight(long weight) {
+        if (position + 2 * MAX_LITERAL_BYTES > BUFFER_SIZE) {
+            flush();
+        }
+        writeLong(weight);
+        bytes[position++] = ' ';
+    }
+
+    @Override
+    public void endClause() {
+        if (position + 2 > BUFFER_SIZE) {
+            flush();
+        }
+        bytes[position++] = '0';
+        bytes[position++] = '\n';
+        noClauses++;
+    }
+
+    @Override
+    public boolean addClause(int... clause) {
+        for (int literal : clause) {
+            addLiteral(literal);
+        }
+        endClause();
+        return true;
+    }
+
+    @Override
+    public int newVariable() {
+        return ++noVariables;
+    }
+
+    @Override
+    public int getNoVariables() {
+        return noVariables;
+    }
+
+    @Override
+    public long getNoClauses() {
+        return noClauses;
+    }
+
+    @Override
+    public long getNoLiterals() {
+        return noLiterals;
+    }
+
+    /**
+     * @return the path of the file, or null when writing to another channel
+     */
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * @return the number of bytes written to the file so far
+     */
+    public long getNoBytes() {
+        return noBytes + position;
+    }
+
+    /**
+     * Flush the buffer, fill in the header (if deferred) and close the file
+     */
+    @Override
+    public void close() throws IOException {
+        flush();
+        try {
+            if (deferredHeader) {
+                writeHeader(noVariables, noClauses);
+                while (position < HEADER_WIDTH - 1) {
+                    bytes[position++] = ' ';
+                }
+                buffer.clear().limit(position);
+                ((FileChannel) channel).write(buffer, 0);
+                position = 0;
+            } else if (noClauses != declaredClauses) {
+                throw new IllegalStateException("The header declares " + declaredClauses
+                        + " clauses, but " + noClauses + " were written");
+            }
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Write the buffered bytes to the file
+     */
+    private void flush() {
+        buffer.clear().limit(position);
+        try {
+            while (buffer.hasRemaining()) {
+                noBytes += channel.write(buffer);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        position = 0;
+    }
+
+    private void writeHeader(long variables, long clauses) {
+        String format = top > 0 ? Constants.P_WCNF : Constants.P_CNF;
+        for (int i = 0; i < format.length(); i++) {
+            bytes[position++] = (byte) format.charAt(i);
+        }
+        bytes[position++] = ' ';
+        writeLong(variables);
+        bytes[position++] = ' ';
+        writeLong(clauses);
+        if (top > 0) {
+            bytes[position++] = ' ';
+            writeLong(top);
+        }
+        if (!deferredHeader) {
+            bytes[position++] = '\n';
+        }
+    }
+
+    /**
+     * Format an int straight into the buffer
+     */
+    private void writeInt(int value) {
+        if (value < 0) {
+            bytes[position++] = '-';
+            value = -value;
+        }
+        int end = position + digits(value);
+        int index = end;
+        do {
+            bytes[--index] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+        position = end;
+    }
+
+    private void writeLong(long value) {
+        String digits = Long.toString(value);
+        for (int i = 0; i < digits.length(); i++) {
+            bytes[position++] = (byte) digits.charAt(i);
+        }
+    }
+
+    private static int digits(int value) {
+        int count = 1;
+        while (value >= 10) {
+            value /= 10;
+            count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,150 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Class which reads whitespace-separated integers byte by byte, from a
+ * buffered input stream or from a memory-mapped file, without allocating
+ * anything per token (unlike java.util.Scanner)
+ */
+public class FastReader {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final InputStream input;
+    private final MappedByteBuffer mapped;
+    private final byte[] bytes = new byte[BUFFER_SIZE];
+    private int position;
+    private int size;
+
+    /**
+     * Read from an input stream (e.g. System.in)
+     * @param input the input stream
+     */
+    public FastReader(final InputStream input) {
+        this.input = input;
+        this.mapped = null;
+    }
+
+    private FastReader(final MappedByteBuffer mapped) {
+        this.input = null;
+        this.mapped = mapped;
+    }
+
+    /**
+     * Read from a file, mapped in memory
+     * @param path the path of the file
+     * @return the reader
+     */
+    public static FastReader open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new FastReader(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Read the next integer
+     * @return the integer
+     * @throws IOException at the end of the input, or if the next word is not a decimal
+     * integer within the range of int (e.g. a stray letter in a corrupted input)
+     */
+    public int nextInt() throws IOException {
+        int c = skipWhitespace();
+        if (c < 0) {
+            throw new IOException("Unexpected end of input");
+        }
+        boolean negative = c == '-';
+        if (negative) {
+            c = read();
+        }
+        // accumulated as a negative number, whose range reaches Integer.MIN_VALUE
+        long value = 0;
+        int noDigits = 0;
+        while (c >= '0' && c <= '9') {
+            value = 10 * value - (c - '0');
+            noDigits++;
+            if (value < Integer.MIN_VALUE) {
+                throw notAnInteger(negative, value, noDigits, read());
+            }
+            c = read();
+        }
+        if (noDigits == 0 || c > ' ' || (!negative && value == Integer.MIN_VALUE)) {
+            throw notAnInteger(negative, value, noDigits, c);
+        }
+        return (int) (negative ? value : -value);
+    }
+
+    /**
+     * Read the rest of a word which is not an integer; only this error path builds the word
+     * @param negative whether the word started with a minus sign
+     * @param value the negated value of the digits read so far
+     * @param noDigits the number of digits read so far (with the leading zeros)
+     * @param c the next character of the input
+     * @return the exception naming the word
+     */
+    private IOException notAnInteger(boolean negative, long value, int noDigits, int c) throws IOException {
+        StringBuilder word = new StringBuilder(negative ? "-" : "");
+        if (noDigits > 0) {
+            String digits = Long.toString(-value);
+            for (int i = digits.length(); i < noDigits; i++) {
+                word.append('0');
+            }
+            word.append(digits);
+        }
+        while (c > ' ') {
+            word.append((char) c);
+            c = read();
+        }
+        return new IOException("Not an integer: \"" + word + "\"");
+    }
+
+    /**
+     * Read the next whitespace-separated word (used for the few words of the
+     * answers, such as "True" or "False")
+     * @return the word, or null at the end of the input
+     */
+    public String nextWord() throws IOException {
+        int c = skipWhitespace();
+        if (c < 0) {
+            return null;
+        }
+        StringBuilder word = new StringBuilder();
+        while (c > ' ') {
+            word.append((char) c);
+            c = read();
+        }
+        return word.toString();
+    }
+
+    private int skipWhitespace() throws IOException {
+        int c = read();
+        while (c >= 0 && c <= ' ') {
+            c = read();
+        }
+        return c;
+    }
+
+    private int read() throws IOException {
+        if (position == size) {
+            position = 0;
+            size = fill();
+            if (size <= 0) {
+                size = 0;
+                return -1;
+            }
+        }
+        // unsigned, so that a byte above 127 is not taken for the end of the input
+        return bytes[position++] & 0xFF;
+    }
+
+    private int fill() throws IOException {
+        if (input != null) {
+            return input.read(bytes, 0, BUFFER_SIZE);
+        }
+        int length = Math.min(BUFFER_SIZE, mapped.remaining());
+        mapped.get(bytes, 0, length);
+        return length;
+    }
+}
@@ -0,0 +1,159 @@
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+
+/**
+ * Class which keeps a CNF formula in memory, as a flat array of literals,
+ * so that it can be handed to an oracle without going through the disk
+ */
+public class Formula implements ClauseSink, DimacsFormula {
+    /**
+     * The greatest number of clauses the buffers are sized for at first, whatever the
+     * expected number; beyond it, they grow as the clauses are written
+     */
+    private static final int MAX_INITIAL_CLAUSES = 1 << 20;
+    /**
+     * Number of variables used within the formula
+     */
+    private int noVariables;
+    /**
+     * Number of clauses written so far
+     */
+    private int noClauses;
+    /**
+     * The literals of all the clauses, one after the other
+     */
+    private int[] literals;
+    /**
+     * Number of literals written so far
+     */
+    private int noLiterals;
+    /**
+     * For each clause, the index (within the literals array) after its last literal
+     */
+    private int[] clauseEnds;
+
+    public Formula(final int noVariables) {
+        this(noVariables, 16);
+    }
+
+    /**
+     * @param noVariables the number of variables used within the formula
+     * @param expectedClauses the expected number of clauses, only a hint to size the buffers
+     * (clamped to MAX_INITIAL_CLAUSES)
+     */
+    public Formula(final int noVariables, final long expectedClauses) {
+        this.noVariables = noVariables;
+        int capacity = (int) Math.min(MAX_INITIAL_CLAUSES, Math.max(16, expectedClauses));
+        this.clauseEnds = new int[capacity];
+        this.literals = new int[2 * capacity];
+    }
+
+    /**
+     * Add a literal to the clause currently being written
+     * @param literal the literal, encoded as in DIMACS (negative if negated)
+     */
+    @Override
+    public void addLiteral(int literal) {
+        if (noLiterals == literals.length) {
+            literals = Arrays.copyOf(literals, 2 * literals.length);
+        }
+        literals[noLiterals++] = literal;
+        noVariables = Math.max(noVariables, Math.abs(literal));
+    }
+
+    /**
+     * Mark the end of the clause currently being written
+     */
+    @Override
+    public void endClause() {
+        if (noClauses == clauseEnds.length) {
+            clauseEnds = Arrays.copyOf(clauseEnds, 2 * clauseEnds.length);
+        }
+        clauseEnds[noClauses++] = noLiterals;
+    }
+
+    /**
+     * Add a whole clause to the formula
+     * @param clause the literals of the clause
+     * @return always true, since the formula is not solved while written
+     */
+    @Override
+    public boolean addClause(int... clause) {
+        for (int literal : clause) {
+            addLiteral(literal);
+        }
+        endClause();
+        return true;
+    }
+
+    /**
+     * Reserve a new variable, which is not used by any clause yet
+     * @return the index of the new variable
+     */
+    @Override
+    public int newVariable() {
+        return ++noVariables;
+    }
+
+    @Override
+    public int getNoVariables() {
+        return noVariables;
+    }
+
+    @Override
+    public long getNoClauses() {
+        return noClauses;
+    }
+
+    @Override
+    public long getNoLiterals() {
+        return noLiterals;
+    }
+
+    /**
+     * @param clause the index of the clause, starting from 0
+     * @return the index (within the literals) of the clause's first literal
+     */
+    public int clauseStart(int clause) {
+        return clause == 0 ? 0 : clauseEnds[clause - 1];
+    }
+
+    /**
+     * @param clause the index of the clause, starting from 0
+     * @return the index (within the literals) after the clause's last literal
+     */
+    public int clauseEnd(int clause) {
+        return clauseEnds[clause];
+    }
+
+    public int literalAt(int index) {
+        return literals[index];
+    }
+
+    @Override
+    public long writeDimacs(WritableByteChannel channel) throws IOException {
+        DimacsWriter writer = DimacsWriter.withHeader(channel, noVariables, noClauses);
+        try {
+            copyTo(writer);
+        } finally {
+            writer.close();
+        }
+        return writer.getNoBytes();
+    }
+
+    /**
+     * Write all the clauses of the formula, in order, in another sink
+     * @param sink the sink receiving the clauses
+     */
+    public void copyTo(ClauseSink sink) {
+        int start = 0;
+        for (int c = 0; c < noClauses; c++) {
+            for (int l = start; l < clauseEnds[c]; l++) {
+                sink.addLiteral(literals[l]);
+            }
+            sink.endClause();
+            start = clauseEnds[c];
+        }
+    }
+}
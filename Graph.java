@@ -0,0 +1,55 @@
+/**
+ * Interface of the undirected graphs given to the tasks, with the vertices
+ * numbered from 1 to n
+ */
+public interface Graph {
+    /**
+     * Above this number of vertices, the automatic choice of representation
+     * goes for the compressed sparse rows instead of the bitset
+     */
+    int BITSET_MAX_VERTICES = 8192;
+
+    int getNoVertices();
+
+    boolean hasEdge(int v, int w);
+
+    int degree(int v);
+
+    /**
+     * @param v the vertex
+     * @param from the first candidate
+     * @return the first neighbour w >= from of v, or -1 if there is none
+     */
+    int nextNeighbour(int v, int from);
+
+    /**
+     * @param v the vertex
+     * @param from the first candidate
+     * @return the first vertex w >= from, w != v, not connected to v, or -1 if there is none
+     */
+    int nextNonNeighbour(int v, int from);
+
+    /**
+     * Build a graph from its list of edges, with the representation selected
+     * through the "graph" system property: "bitset", "csr" or "auto" (default,
+     * a bitset for at most 8192 vertices and compressed sparse rows above)
+     * @param n the number of vertices
+     * @param m the number of edges
+     * @param from the first end of each edge
+     * @param to the second end of each edge
+     * @return the graph
+     */
+    static Graph fromEdges(int n, int m, int[] from, int[] to) {
+        String representation = System.getProperty(Constants.GRAPH_PROPERTY, Constants.AUTO_GRAPH);
+        boolean bitset = representation.equals(Constants.BITSET_GRAPH)
+                || (representation.equals(Constants.AUTO_GRAPH) && n <= BITSET_MAX_VERTICES);
+        if (bitset) {
+            BitsetGraph graph = new BitsetGraph(n);
+            for (int i = 0; i < m; i++) {
+                graph.addEdge(from[i], to[i]);
+            }
+            return graph;
+        }
+        return new CsrGraph(n, m, from, to);
+    }
+}
@@ -0,0 +1,390 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Class which contains cheap heuristics on graphs, used to bound the
+ * questions given to the oracle
+ */
+public class GraphHeuristics {
+    /**
+     * Number of steps during which a vertex swapped out of the local search's clique
+     * cannot be swapped back in
+     */
+    private static final int TABU_TENURE = 7;
+    /**
+     * The local search gives up after MAX_STEPS_FACTOR * n^2 steps, n being the number of vertices
+     */
+    private static final long MAX_STEPS_FACTOR = 20;
+    /**
+     * The deadline of the heuristics which run to their end
+     */
+    public static final long NO_DEADLINE = Long.MAX_VALUE;
+
+    private GraphHeuristics() {}
+
+    /**
+     * Find a clique greedily: starting from each vertex, add its neighbours in decreasing
+     * order of their degree, as long as they are connected to all the clique's vertices
+     * @param graph the graph
+     * @return the vertices of the greatest clique found
+     */
+    public static List<Integer> greedyClique(Graph graph) {
+        return greedyClique(graph, NO_DEADLINE);
+    }
+
+    /**
+     * Find a clique greedily, unless the deadline passes first
+     * @param graph the graph
+     * @param deadline the time (System.nanoTime) at which the search gives up
+     * @return the vertices of the greatest clique found, or null if the deadline passed
+     */
+    public static List<Integer> greedyClique(Graph graph, long deadline) {
+        int n = graph.getNoVertices();
+        Integer[] order = verticesByDegree(graph);
+        int[] rank = new int[n + 1];
+        for (int i = 0; i < n; i++) {
+            rank[order[i]] = i;
+        }
+        List<Integer> best = new ArrayList<>();
+
+        for (int seed : order) {
+            if (graph.degree(seed) < best.size()) {
+                // the seed cannot be part of a greater clique
+                continue;
+            }
+            if (isPast(deadline)) {
+                return null;
+            }
+            // the neighbours of the seed, in decreasing order of their degree
+            Integer[] candidates = new Integer[graph.degree(seed)];
+            int noCandidates = 0;
+            for (int w = graph.nextNeighbour(seed, 1); w != -1; w = graph.nextNeighbour(seed, w + 1)) {
+                candidates[noCandidates++] = w;
+            }
+            Arrays.sort(candidates, 0, noCandidates, (first, second) -> rank[first] - rank[second]);
+
+            List<Integer> clique = new ArrayList<>();
+            clique.add(seed);
+            for (int i = 0; i < noCandidates; i++) {
+                int candidate = candidates[i];
+                boolean connected = true;
+                for (int member : clique) {
+                    if (member != seed && !graph.hasEdge(member, candidate)) {
+                        connected = false;
+                        break;
+                    }
+                }
+                if (connected) {
+                    clique.add(candidate);
+                }
+            }
+            if (clique.size() > best.size()) {
+                best = clique;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Color the graph greedily (Welsh-Powell): go through the vertices in decreasing order
+     * of their degree and give each one the smallest color not used by its neighbours
+     * @param graph the graph
+     * @return the number of colors used, which bounds the dimension of any clique
+     */
+    public static int greedyColoringSize(Graph graph) {
+        return greedyColoringSize(graph, NO_DEADLINE);
+    }
+
+    /**
+     * Color the graph greedily (Welsh-Powell), unless the deadline passes first
+     * @param graph the graph
+     * @param deadline the time (System.nanoTime) at which the coloring gives up
+     * @return the number of colors used, or -1 if the deadline passed
+     */
+    public static int greedyColoringSize(Graph graph, long deadline) {
+        int n = graph.getNoVertices();
+        int[] color = new int[n + 1];
+        // used[c] == v if the color c is used by a neighbour of v
+        int[] used = new int[n + 2];
+        int noColors = 0;
+
+        for (int v : verticesByDegree(graph)) {
+            if (isPast(deadline)) {
+                return -1;
+            }
+            for (int w = graph.nextNeighbour(v, 1); w != -1; w = graph.nextNeighbour(v, w + 1)) {
+                used[color[w]] = v;
+            }
+            int c = 1;
+            while (used[c] == v) {
+                c++;
+            }
+            color[v] = c;
+            noColors = Math.max(noColors, c);
+        }
+        return noColors;
+    }
+
+    /**
+     * Color the graph with DSATUR: repeatedly color the uncolored vertex whose neighbours
+     * already use the most distinct colors (its saturation), ties broken by degree, with
+     * the smallest color not used by its neighbours
+     * @param graph the graph
+     * @return the color of each vertex (indexed from 1, colors starting from 1)
+     */
+    public static int[] dsaturColoring(Graph graph) {
+        return dsaturColoring(graph, NO_DEADLINE);
+    }
+
+    /**
+     * Color the graph with DSATUR, unless the deadline passes first (each step goes
+     * through all the vertices)
+     * @param graph the graph
+     * @param deadline the time (System.nanoTime) at which the coloring gives up
+     * @return the color of each vertex, or null if the deadline passed
+     */
+    public static int[] dsaturColoring(Graph graph, long deadline) {
+        int n = graph.getNoVertices();
+        int[] color = new int[n + 1];
+        // the colors used by the neighbours of each vertex, and their number
+        BitSet[] neighbourColors = new BitSet[n + 1];
+        int[] saturation = new int[n + 1];
+        for (int v = 1; v <= n; v++) {
+            neighbourColors[v] = new BitSet();
+        }
+
+        for (int step = 0; step < n; step++) {
+            if (isPast(deadline)) {
+                return null;
+            }
+            int best = -1;
+            for (int v = 1; v <= n; v++) {
+                if (color[v] == 0 && (best == -1 || saturation[v] > saturation[best]
+                        || saturation[v] == saturation[best] && graph.degree(v) > graph.degree(best))) {
+                    best = v;
+                }
+            }
+            int c = neighbourColors[best].nextClearBit(1);
+            color[best] = c;
+            for (int w = graph.nextNeighbour(best, 1); w != -1; w = graph.nextNeighbour(best, w + 1)) {
+                if (color[w] == 0 && !neighbourColors[w].get(c)) {
+                    neighbourColors[w].set(c);
+                    saturation[w]++;
+                }
+            }
+        }
+        return color;
+    }
+
+    /**
+     * Look for a clique of a given dimension by local search, until a deadline: starting
+     * from a given clique (e.g. the greedy one), add a vertex connected to all the clique's vertices, or else
+     * swap in a vertex connected to all of them but one (the vertex swapped out cannot come
+     * back for a few steps); the search restarts from a random vertex when no move is left
+     * or when the clique has not grown for a while, and gives up after a number of steps
+     * quadratic in the number of vertices (small graphs do not wait for the deadline)
+     * @param graph the graph
+     * @param start the clique the search starts from
+     * @param target the dimension at which the search stops
+     * @param deadline the time (System.nanoTime) at which the search stops
+     * @return the vertices of the greatest clique found
+     */
+    public static List<Integer> localSearchClique(Graph graph, List<Integer> start, int target, long deadline) {
+        int n = graph.getNoVertices();
+        List<Integer> best = start;
+        if (best.size() >= target || n == 0) {
+            return best;
+        }
+        // seeded, so that the same graph gives the same clique
+        Random random = new Random(n);
+        LocalClique clique = new LocalClique(graph);
+        for (int v : best) {
+            clique.add(v);
+        }
+        int[] moves = new int[n];
+        long[] tabuUntil = new long[n + 1];
+        long maxPlateau = 10L * n;
+        long maxSteps = MAX_STEPS_FACTOR * n * n;
+        long plateau = 0;
+
+        for (long step = 1; best.size() < target && step <= maxSteps; step++) {
+            if ((step & 63) == 0 && isPast(deadline)) {
+                break;
+            }
+            int noMoves = clique.collect(0, moves, tabuUntil, step);
+            if (noMoves > 0) {
+                clique.add(moves[random.nextInt(noMoves)]);
+            } else if ((noMoves = clique.collect(1, moves, tabuUntil, step)) > 0 && plateau < maxPlateau) {
+                int v = moves[random.nextInt(noMoves)];
+                int removed = clique.removeNonNeighbour(v);
+                tabuUntil[removed] = step + TABU_TENURE;
+                clique.add(v);
+            } else {
+                clique.clear();
+                clique.add(1 + random.nextInt(n));
+                plateau = 0;
+            }
+
+            if (clique.size() > best.size()) {
+                best = clique.toList();
+                plateau = 0;
+            } else {
+                plateau++;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * The clique of the local search, with the number of its vertices each vertex is not
+     * connected to, so that the moves are found without going through the clique
+     */
+    private static class LocalClique {
+        private final Graph graph;
+        private final int[] vertices;
+        private final boolean[] inClique;
+        // missing[v]: the number of the clique's vertices not connected to v
+        private final int[] missing;
+        private int size;
+
+        LocalClique(final Graph graph) {
+            this.graph = graph;
+            int n = graph.getNoVertices();
+            this.vertices = new int[n];
+            this.inClique = new boolean[n + 1];
+            this.missing = new int[n + 1];
+        }
+
+        void add(int v) {
+            vertices[size++] = v;
+            inClique[v] = true;
+            for (int w = graph.nextNonNeighbour(v, 1); w != -1; w = graph.nextNonNeighbour(v, w + 1)) {
+                missing[w]++;
+            }
+        }
+
+        /**
+         * Remove the clique's vertex which is not connected to v
+         * @return the removed vertex
+         */
+        int removeNonNeighbour(int v) {
+            int i = 0;
+            while (graph.hasEdge(vertices[i], v)) {
+                i++;
+            }
+            int u = vertices[i];
+            vertices[i] = vertices[--size];
+            inClique[u] = false;
+            for (int w = graph.nextNonNeighbour(u, 1); w != -1; w = graph.nextNonNeighbour(u, w + 1)) {
+                missing[w]--;
+            }
+            return u;
+        }
+
+        void clear() {
+            while (size > 0) {
+                int u = vertices[--size];
+                inClique[u] = false;
+                for (int w = graph.nextNonNeighbour(u, 1); w != -1; w = graph.nextNonNeighbour(u, w + 1)) {
+                    missing[w]--;
+                }
+            }
+        }
+
+        /**
+         * Collect the vertices out of the clique which are not connected to exactly
+         * a given number of its vertices, and are not tabu
+         * @return the number of vertices collected
+         */
+        int collect(int noMissing, int[] moves, long[] tabuUntil, long step) {
+            int noMoves = 0;
+            for (int v = 1; v < inClique.length; v++) {
+                if (!inClique[v] && missing[v] == noMissing && tabuUntil[v] <= step) {
+                    moves[noMoves++] = v;
+                }
+            }
+            return noMoves;
+        }
+
+        int size() {
+            return size;
+        }
+
+        List<Integer> toList() {
+            List<Integer> list = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                list.add(vertices[i]);
+            }
+            return list;
+        }
+    }
+
+    /**
+     * Find a maximal matching greedily: go through the vertices in increasing order of their
+     * degree and match each one with its unmatched neighbour of the smallest degree
+     * @param graph the graph
+     * @return the number of edges of the matching, which bounds the dimension of any
+     * vertex cover from below (each edge of the matching needs its own vertex)
+     */
+    public static int greedyMatchingSize(Graph graph) {
+        return greedyMatchingSize(graph, NO_DEADLINE);
+    }
+
+    /**
+     * Find a maximal matching greedily, unless the deadline passes first
+     * @param graph the graph
+     * @param deadline the time (System.nanoTime) at which the matching gives up
+     * @return the number of edges of the matching, or -1 if the deadline passed
+     */
+    public static int greedyMatchingSize(Graph graph, long deadline) {
+        int n = graph.getNoVertices();
+        boolean[] matched = new boolean[n + 1];
+        Integer[] order = verticesByDegree(graph);
+        int noEdges = 0;
+
+        for (int i = n - 1; i >= 0; i--) {
+            if (isPast(deadline)) {
+                return -1;
+            }
+            int v = order[i];
+            if (matched[v]) {
+                continue;
+            }
+            int mate = -1;
+            for (int w = graph.nextNeighbour(v, 1); w != -1; w = graph.nextNeighbour(v, w + 1)) {
+                if (!matched[w] && (mate == -1 || graph.degree(w) < graph.degree(mate))) {
+                    mate = w;
+                }
+            }
+            if (mate != -1) {
+                matched[v] = true;
+                matched[mate] = true;
+                noEdges++;
+            }
+        }
+        return noEdges;
+    }
+
+    /**
+     * @return whether the deadline (System.nanoTime, or NO_DEADLINE) has passed
+     */
+    private static boolean isPast(long deadline) {
+        return deadline != NO_DEADLINE && System.nanoTime() - deadline >= 0;
+    }
+
+    /**
+     * @return the vertices 1..n, in decreasing order of their degree
+     */
+    private static Integer[] verticesByDegree(Graph graph) {
+        int n = graph.getNoVertices();
+        Integer[] order = new Integer[n];
+        for (int v = 1; v <= n; v++) {
+            order[v - 1] = v;
+        }
+        Arrays.sort(order, (first, second) -> graph.degree(second) - graph.degree(first));
+        return order;
+    }
+}
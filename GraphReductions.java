@@ -0,0 +1,96 @@
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Class which contains the reduction rules applied to the graphs before
+ * formulating the questions for the oracle
+ */
+public class GraphReductions {
+    private GraphReductions() {}
+
+    /**
+     * Repeatedly remove the vertices with less than minDegree neighbours among the
+     * remaining ones (what remains is the minDegree-core of the graph)
+     * @param graph the graph
+     * @param minDegree the minimum degree of the kept vertices
+     * @param removed if not null, receives the removed vertices, in the order of removal
+     * @return the kept vertices, in increasing order
+     */
+    public static List<Integer> peel(Graph graph, int minDegree, List<Integer> removed) {
+        int n = graph.getNoVertices();
+        int[] degrees = new int[n + 1];
+        boolean[] isRemoved = new boolean[n + 1];
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (int v = 1; v <= n; v++) {
+            degrees[v] = graph.degree(v);
+            if (degrees[v] < minDegree) {
+                isRemoved[v] = true;
+                queue.add(v);
+            }
+        }
+
+        while (!queue.isEmpty()) {
+            int v = queue.poll();
+            if (removed != null) {
+                removed.add(v);
+            }
+            // the neighbours lose a degree, and may fall below the minimum
+            for (int w = graph.nextNeighbour(v, 1); w != -1; w = graph.nextNeighbour(v, w + 1)) {
+                if (!isRemoved[w] && --degrees[w] < minDegree) {
+                    isRemoved[w] = true;
+                    queue.add(w);
+                }
+            }
+        }
+
+        List<Integer> kept = new ArrayList<>();
+        for (int v = 1; v <= n; v++) {
+            if (!isRemoved[v]) {
+                kept.add(v);
+            }
+        }
+        return kept;
+    }
+
+    /**
+     * @param graph the graph
+     * @param vertices the vertices considered (the others are ignored)
+     * @return the connected components of the subgraph induced by the vertices,
+     * each one in increasing order
+     */
+    public static List<List<Integer>> components(Graph graph, List<Integer> vertices) {
+        int n = graph.getNoVertices();
+        boolean[] considered = new boolean[n + 1];
+        for (int v : vertices) {
+            considered[v] = true;
+        }
+        boolean[] visited = new boolean[n + 1];
+        List<List<Integer>> components = new ArrayList<>();
+        Deque<Integer> queue = new ArrayDeque<>();
+
+        for (int start : vertices) {
+            if (visited[start]) {
+                continue;
+            }
+            List<Integer> component = new ArrayList<>();
+            visited[start] = true;
+            queue.add(start);
+            while (!queue.isEmpty()) {
+                int v = queue.poll();
+                component.add(v);
+                for (int w = graph.nextNeighbour(v, 1); w != -1; w = graph.nextNeighbour(v, w + 1)) {
+                    if (considered[w] && !visited[w]) {
+                        visited[w] = true;
+                        queue.add(w);
+                    }
+                }
+            }
+            Collections.sort(component);
+            components.add(component);
+        }
+        return components;
+    }
+}
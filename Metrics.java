@@ -0,0 +1,270 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Class which measures where a task spends its time: the duration and the number of
+ * calls of each phase (nanosecond timers, also emitted as JFR events), the number of
+ * clauses and literals of each clause case and other counters; it is enabled through
+ * the "metrics" system property, and reported as a line of JSON once the task is solved.
+ * The metrics of a task are shared by its oracle and by the tasks it creates (e.g. the
+ * components of Registre), possibly from several threads
+ */
+public class Metrics {
+    // the phases (some of them nested: the oracle's own phases within "oracle", the
+    // questions of Reclame within "search")
+    public static final String READ = "read";
+    public static final String PREPROCESS = "preprocess";
+    public static final String CANONICAL = "canonical";
+    public static final String CACHE = "cache";
+    public static final String FORMULATE = "formulate";
+    public static final String ORACLE = "oracle";
+    public static final String CNF_WRITE = "oracle.write";
+    public static final String PROCESS = "oracle.process";
+    public static final String POOL_WAIT = "oracle.pool";
+    public static final String ANSWER_READ = "oracle.read";
+    public static final String DECIPHER = "decipher";
+    public static final String WRITE = "write";
+    public static final String SEARCH = "search";
+    public static final String HEURISTICS = "heuristics";
+    public static final String CLIQUE = "clique";
+    // the clause cases
+    public static final String FIRST_CASE = "first";
+    public static final String SECOND_CASE = "second";
+    public static final String THIRD_CASE = "third";
+    public static final String SYMMETRY_CASE = "symmetry";
+    public static final String NON_EDGE_CASE = "non_edge";
+    public static final String CARDINALITY_CASE = "cardinality";
+    public static final String SOFT_CASE = "soft";
+    public static final String SELECTOR_CASE = "selector";
+
+    /**
+     * The metrics which measure nothing, used when they are not enabled
+     */
+    private static final Metrics DISABLED = new Metrics(null);
+    private static final ClauseCount NO_CLAUSE_COUNT = new ClauseCount(null, null);
+
+    /**
+     * Where the report is written: "stderr", "jfr" (only the JFR events), or the
+     * path of a file to which a line is appended for each task; null if disabled
+     */
+    private final String destination;
+    private final Map<String, LongAdder> phaseNanos = new ConcurrentSkipListMap<>();
+    private final Map<String, LongAdder> phaseCalls = new ConcurrentSkipListMap<>();
+    private final Map<String, LongAdder> counters = new ConcurrentSkipListMap<>();
+
+    private Metrics(final String destination) {
+        this.destination = destination;
+    }
+
+    /**
+     * Create the metrics of a task, as selected through the "metrics" system property
+     * @return the metrics, which measure nothing if the property is not set
+     */
+    public static Metrics fromProperties() {
+        String destination = System.getProperty(Constants.METRICS_PROPERTY);
+        return destination == null ? DISABLED : new Metrics(destination);
+    }
+
+    public boolean isEnabled() {
+        return destination != null;
+    }
+
+    /**
+     * A step of a task, measured as a phase
+     */
+    public interface Step {
+        void run() throws IOException, InterruptedException;
+    }
+
+    /**
+     * A step of a task which computes a value, measured as a phase
+     */
+    public interface Computation<T> {
+        T compute() throws IOException, InterruptedException;
+    }
+
+    /**
+     * Run a step and add its duration to a phase
+     * @param phase the name of the phase
+     * @param step the step
+     */
+    public void time(String phase, Step step) throws IOException, InterruptedException {
+        measure(phase, () -> {
+            step.run();
+            return null;
+        });
+    }
+
+    /**
+     * Run a step which computes a value and add its duration to a phase
+     * @param phase the name of the phase
+     * @param computation the step
+     * @return the value computed by the step
+     */
+    public <T> T measure(String phase, Computation<T> computation) throws IOException, InterruptedException {
+        if (!isEnabled()) {
+            return computation.compute();
+        }
+        // the events are only created once the flight recorder runs, so as not to initialize it
+        PhaseEvent event = FlightRecorder.isInitialized() ? new PhaseEvent() : null;
+        if (event != null) {
+            event.phase = phase;
+            event.begin();
+        }
+        long start = System.nanoTime();
+        try {
+            return computation.compute();
+        } finally {
+            phaseNanos.computeIfAbsent(phase, key -> new LongAdder()).add(System.nanoTime() - start);
+            phaseCalls.computeIfAbsent(phase, key -> new LongAdder()).increment();
+            if (event != null) {
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Add a value to a counter
+     * @param counter the name of the counter
+     * @param value the value
+     */
+    public void add(String counter, long value) {
+        if (isEnabled()) {
+            counters.computeIfAbsent(counter, key -> new LongAdder()).add(value);
+        }
+    }
+
+    /**
+     * Start counting the clauses written in a sink, by clause case
+     * @param sink the sink
+     * @return the count, to be marked after each clause case
+     */
+    public ClauseCount countClauses(ClauseSink sink) {
+        return isEnabled() ? new ClauseCount(this, sink) : NO_CLAUSE_COUNT;
+    }
+
+    /**
+     * Write the report of a task: the phases, with their total duration and number of
+     * calls, and the counters, as a single line of JSON
+     * @param task the name of the task
+     */
+    public void report(String task) {
+        if (!isEnabled() || destination.equals(Constants.METRICS_JFR)) {
+            return;
+        }
+        StringBuilder json = new StringBuilder();
+        json.append("{\"task\":\"").append(task).append("\",\"phases\":{");
+        String separator = "";
+        for (Map.Entry<String, LongAdder> phase : phaseNanos.entrySet()) {
+            json.append(separator).append('"').append(phase.getKey()).append("\":{\"ns\":")
+                    .append(phase.getValue().sum()).append(",\"calls\":")
+                    .append(phaseCalls.get(phase.getKey()).sum()).append('}');
+            separator = ",";
+        }
+        json.append("},\"counters\":{");
+        separator = "";
+        for (Map.Entry<String, LongAdder> counter : counters.entrySet()) {
+            json.append(separator).append('"').append(counter.getKey()).append("\":")
+                    .append(counter.getValue().sum());
+            separator = ",";
+        }
+        json.append("}}");
+
+        if (destination.equals(Constants.METRICS_STDERR)) {
+            System.err.println(json);
+            return;
+        }
+        // the tasks of a batch append their lines to the same file
+        synchronized (Metrics.class) {
+            try {
+                Files.write(Path.of(destination), (json + Constants.NEW_LINE).getBytes(StandardCharsets.UTF_8),
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * The number of clauses and literals written in a sink, by clause case: the clauses
+     * written since the last mark belong to the case given at this mark; the counts are
+     * kept here and added to the metrics once closed, so that marking is cheap
+     */
+    public static class ClauseCount implements AutoCloseable {
+        private static final int MAX_CASES = 8;
+
+        private final Metrics metrics;
+        private final ClauseSink sink;
+        private final String[] cases = new String[MAX_CASES];
+        private final long[] caseClauses = new long[MAX_CASES];
+        private final long[] caseLiterals = new long[MAX_CASES];
+        private int noCases;
+        private long noClauses;
+        private long noLiterals;
+
+        private ClauseCount(final Metrics metrics, final ClauseSink sink) {
+            this.metrics = metrics;
+            this.sink = sink;
+            if (sink != null) {
+                noClauses = sink.getNoClauses();
+                noLiterals = sink.getNoLiterals();
+            }
+        }
+
+        /**
+         * Count the clauses and literals written since the last mark within a clause case
+         * @param clauseCase the name of the clause case (one of the constants)
+         */
+        public void mark(String clauseCase) {
+            if (metrics == null) {
+                return;
+            }
+            int c = 0;
+            while (c < noCases && cases[c] != clauseCase) {
+                c++;
+            }
+            if (c == noCases) {
+                cases[noCases++] = clauseCase;
+            }
+            caseClauses[c] += sink.getNoClauses() - noClauses;
+            caseLiterals[c] += sink.getNoLiterals() - noLiterals;
+            noClauses = sink.getNoClauses();
+            noLiterals = sink.getNoLiterals();
+        }
+
+        @Override
+        public void close() {
+            for (int c = 0; c < noCases; c++) {
+                metrics.add("clauses." + cases[c], caseClauses[c]);
+                metrics.add("literals." + cases[c], caseLiterals[c]);
+            }
+        }
+    }
+
+    /**
+     * The JFR event of a phase, recorded when the flight recorder is running
+     * (e.g. -XX:StartFlightRecording) and the metrics are enabled
+     */
+    @Name("reductions.Phase")
+    @Label("Phase")
+    @Category("Reductions")
+    @Description("A phase of solving a task")
+    static class PhaseEvent extends Event {
+        @Label("Phase")
+        String phase;
+    }
+}
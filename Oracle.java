@@ -0,0 +1,82 @@
+import java.io.IOException;
+
+/**
+ * Interface of the oracles which decide the satisfiability of a formula
+ */
+public interface Oracle {
+    /**
+     * Decide the satisfiability of a question
+     * @param question the clauses of the question, written in a sink created by newQuestion
+     * (or in a formula kept in memory)
+     * @return the answer of the oracle, with the model if the question is satisfiable
+     */
+    OracleAnswer solve(ClauseSink question) throws IOException, InterruptedException;
+
+    /**
+     * Find a model of the hard clauses of a weighted question which falsifies as few
+     * soft clauses as possible (MaxSAT), in a single call
+     * @param question the weighted question
+     * @return the answer of the oracle, with the model and its cost, or unsatisfiable
+     * if the hard clauses are
+     */
+    OracleAnswer solveWeighted(WeightedFormula question) throws IOException, InterruptedException;
+
+    /**
+     * Create the sink receiving the clauses of a new question; by default, a formula
+     * kept in memory
+     * @param noVariables the number of variables of the question
+     * @param expectedClauses the expected number of clauses, only a hint to size the buffers
+     * (it may be far from the real count, or too large to allocate)
+     * @return the sink
+     */
+    default ClauseSink newQuestion(int noVariables, long expectedClauses) throws IOException {
+        return new Formula(noVariables, expectedClauses);
+    }
+
+    /**
+     * Measure the oracle's own phases and counters (e.g. the CNF bytes written) within
+     * the metrics of the task asking the questions; by default, nothing is measured
+     * @param metrics the metrics
+     */
+    default void setMetrics(Metrics metrics) {
+    }
+
+    /**
+     * @return whether several questions can be asked at the same time, from different threads
+     */
+    default boolean isConcurrent() {
+        return true;
+    }
+
+    /**
+     * Create the oracle with the given name
+     * @param name the name of the oracle: "cdcl" or "cdcl:seed" (with random decisions),
+     * "python" or "python:engine" (a pysat engine, e.g. "g4", "cd19", "m22"), or "portfolio"
+     * (the oracles listed in the "portfolio" system property, racing each other)
+     * @return the oracle
+     */
+    static Oracle fromName(String name) {
+        int separator = name.indexOf(':');
+        String kind = separator < 0 ? name : name.substring(0, separator);
+        String option = separator < 0 ? null : name.substring(separator + 1);
+        if (Constants.PYTHON_ORACLE.equals(kind)) {
+            return option == null ? new PythonOracle() : new PythonOracle(option);
+        }
+        if (Constants.CDCL_ORACLE.equals(kind)) {
+            return option == null ? new CdclOracle() : new CdclOracle(Long.parseLong(option));
+        }
+        if (Constants.PORTFOLIO_ORACLE.equals(kind)) {
+            return PortfolioOracle.fromProperties();
+        }
+        throw new IllegalArgumentException("Unknown oracle: " + name);
+    }
+
+    /**
+     * Create the oracle selected through the "oracle" system property,
+     * the in-process CDCL solver being the default
+     * @return the oracle
+     */
+    static Oracle fromProperties() {
+        return fromName(System.getProperty(Constants.ORACLE_PROPERTY, Constants.CDCL_ORACLE));
+    }
+}
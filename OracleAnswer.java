@@ -0,0 +1,88 @@
+/**
+ * Class which keeps the answer given by an oracle
+ */
+public class OracleAnswer {
+    /**
+     * The answer of the oracle ("True" or "False", or "Unknown" if the question
+     * was given up at its deadline)
+     */
+    private final String status;
+    /**
+     * The values of the variables, as DIMACS literals, if the answer is "True"
+     */
+    private final int[] model;
+    /**
+     * The total weight of the soft clauses falsified by the model, for a weighted question
+     */
+    private final long cost;
+    /**
+     * Whether the model of a weighted question is proven to be of minimum cost, false
+     * if the search was given up with the best model found so far
+     */
+    private final boolean proven;
+
+    public OracleAnswer(final String status, final int[] model) {
+        this(status, model, 0);
+    }
+
+    public OracleAnswer(final String status, final int[] model, final long cost) {
+        this(status, model, cost, true);
+    }
+
+    public OracleAnswer(final String status, final int[] model, final long cost, final boolean proven) {
+        this.status = status;
+        this.model = model;
+        this.cost = cost;
+        this.proven = proven;
+    }
+
+    public static OracleAnswer satisfiable(int[] model) {
+        return new OracleAnswer(Constants.TRUE, model);
+    }
+
+    /**
+     * @param model the model of a weighted question, of minimum cost
+     * @param cost the total weight of the soft clauses it falsifies
+     * @return the answer
+     */
+    public static OracleAnswer optimum(int[] model, long cost) {
+        return new OracleAnswer(Constants.TRUE, model, cost);
+    }
+
+    /**
+     * @param model the best model of a weighted question found before its search was given up
+     * @param cost the total weight of the soft clauses it falsifies
+     * @return the answer, not proven to be of minimum cost
+     */
+    public static OracleAnswer bestFound(int[] model, long cost) {
+        return new OracleAnswer(Constants.TRUE, model, cost, false);
+    }
+
+    public static OracleAnswer unsatisfiable() {
+        return new OracleAnswer(Constants.FALSE, null);
+    }
+
+    public static OracleAnswer unknown() {
+        return new OracleAnswer(Constants.UNKNOWN, null);
+    }
+
+    public boolean isSatisfiable() {
+        return Constants.TRUE.equals(status);
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public int[] getModel() {
+        return model;
+    }
+
+    public long getCost() {
+        return cost;
+    }
+
+    public boolean isProven() {
+        return proven;
+    }
+}
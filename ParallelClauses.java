@@ -0,0 +1,66 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Class which generates independent groups of clauses (one group for each position
+ * within the clique, or for each vertex of the graph) on the fork-join pool, and
+ * merges them into the question in the same order as the sequential generation
+ */
+public final class ParallelClauses {
+    /**
+     * Number of chunks given to each thread of the pool, so that uneven groups of
+     * clauses are still balanced between the threads
+     */
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    /**
+     * The clauses of a single group, which do not use any auxiliary variables
+     */
+    public interface Generator {
+        void generate(ClauseSink sink, int index);
+    }
+
+    private ParallelClauses() {}
+
+    /**
+     * @return whether the parallel generation is selected ("parallel" system property)
+     */
+    public static boolean isEnabled() {
+        return Boolean.getBoolean(Constants.PARALLEL_PROPERTY);
+    }
+
+    /**
+     * Generate the groups from, ..., to; consecutive groups are gathered in chunks,
+     * each written in its own formula, and the chunks are copied in order in the sink
+     * @param sink the sink receiving the clauses
+     * @param from the index of the first group
+     * @param to the index of the last group
+     * @param generator the clauses of a group
+     */
+    public static void generate(ClauseSink sink, int from, int to, Generator generator) {
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        int noGroups = to - from + 1;
+        int chunkSize = Math.max(1, noGroups / (CHUNKS_PER_THREAD * pool.getParallelism()));
+
+        List<ForkJoinTask<Formula>> chunks = new ArrayList<>();
+        for (int first = from; first <= to; first += chunkSize) {
+            final int chunkFrom = first;
+            final int chunkTo = Math.min(to, first + chunkSize - 1);
+            chunks.add(pool.submit(() -> {
+                Formula chunk = new Formula(0);
+                for (int index = chunkFrom; index <= chunkTo; index++) {
+                    generator.generate(chunk, index);
+                }
+                return chunk;
+            }));
+        }
+
+        // merge the chunks in order, releasing each one once it is copied
+        for (int c = 0; c < chunks.size(); c++) {
+            chunks.get(c).join().copyTo(sink);
+            chunks.set(c, null);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Oracle which races several oracles (configurations of the CDCL solver, pysat engines)
+ * on the same question, keeping the first answer and cancelling the others; the question
+ * is formulated once by the task, so the racers share its encodings
+ */
+public class PortfolioOracle implements Oracle {
+    /**
+     * The names of the raced oracles, as given to Oracle.fromName
+     */
+    private final List<String> names;
+    private final List<Oracle> oracles = new ArrayList<>();
+
+    /**
+     * @param names the names of the raced oracles (at most one of them can share
+     * files with the others, such as the python oracle with the files transport)
+     */
+    public PortfolioOracle(final List<String> names) {
+        this.names = names;
+        int noSequential = 0;
+        for (String name : names) {
+            Oracle oracle = Oracle.fromName(name);
+            if (oracle instanceof PortfolioOracle) {
+                throw new IllegalArgumentException("A portfolio cannot contain another portfolio");
+            }
+            if (!oracle.isConcurrent() && ++noSequential > 1) {
+                throw new IllegalArgumentException("At most one oracle sharing files can be raced (see oracle.transport): " + names);
+            }
+            oracles.add(oracle);
+        }
+        if (oracles.isEmpty()) {
+            throw new IllegalArgumentException("The portfolio has no oracles");
+        }
+    }
+
+    /**
+     * Create the portfolio listed (comma-separated) in the "portfolio" system property,
+     * by default four configurations of the CDCL solver
+     * @return the portfolio
+     */
+    public static PortfolioOracle fromProperties() {
+        List<String> names = new ArrayList<>();
+        for (String name : System.getProperty(Constants.PORTFOLIO_PROPERTY,
+                Constants.DEFAULT_PORTFOLIO).split(",")) {
+            if (!name.isBlank()) {
+                names.add(name.trim());
+            }
+        }
+        return new PortfolioOracle(names);
+    }
+
+    /**
+     * The question is kept in memory and given, unchanged, to each of the oracles
+     */
+    @Override
+    public OracleAnswer solve(ClauseSink question) throws IOException, InterruptedException {
+        Formula formula = (Formula) question;
+        return race(oracle -> oracle.solve(formula));
+    }
+
+    @Override
+    public OracleAnswer solveWeighted(WeightedFormula question) throws IOException, InterruptedException {
+        return race(oracle -> oracle.solveWeighted(question));
+    }
+
+    /**
+     * A question, as asked to one of the oracles
+     */
+    private interface Question {
+        OracleAnswer askTo(Oracle oracle) throws IOException, InterruptedException;
+    }
+
+    /**
+     * Ask the question to all the oracles, each on its own thread
+     * @param question the question
+     * @return the first answer
+     */
+    private OracleAnswer race(Question question) throws IOException, InterruptedException {
+        AtomicReference<String> winner = new AtomicReference<>();
+        List<Callable<OracleAnswer>> racers = new ArrayList<>();
+        for (int i = 0; i < oracles.size(); i++) {
+            Oracle oracle = oracles.get(i);
+            String name = names.get(i);
+            racers.add(() -> {
+                OracleAnswer answer = question.askTo(oracle);
+                winner.compareAndSet(null, name);
+                return answer;
+            });
+        }
+
+        // daemon threads, so that a racer ignoring its cancellation does not keep the program alive
+        ExecutorService pool = Executors.newFixedThreadPool(oracles.size(), runnable -> {
+            Thread thread = new Thread(runnable);
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            // the first answer is returned, and the other racers are interrupted
+            OracleAnswer answer = pool.invokeAny(racers);
+            if (Boolean.getBoolean(Constants.STATS_PROPERTY)) {
+                System.err.println("Portfolio: " + winner.get() + " answered first");
+            }
+            return answer;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * The racers share the metrics, so the counters of the interrupted ones are included
+     */
+    @Override
+    public void setMetrics(Metrics metrics) {
+        for (Oracle oracle : oracles) {
+            oracle.setMetrics(metrics);
+        }
+    }
+
+    @Override
+    public boolean isConcurrent() {
+        for (Oracle oracle : oracles) {
+            if (!oracle.isConcurrent()) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
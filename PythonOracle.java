@@ -0,0 +1,338 @@
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Oracle which runs the python oracle (sat_oracle.py) on the question; by default, the
+ * question is written in "sat.cnf" and the answer read from "sat.sol", but the files can
+ * also be unique temporary files, the question and answer can go through pipes, or be
+ * sent to python oracles kept running ("oracle.transport" system property)
+ */
+public class PythonOracle implements Oracle {
+    /**
+     * The counter of the bytes of the questions, within the metrics
+     */
+    static final String CNF_BYTES = "cnf.bytes";
+    /**
+     * Whether the clauses are streamed to the question's file while they are generated
+     * ("dimacs.streaming" system property), instead of being kept in memory
+     */
+    private final boolean streaming = Boolean.getBoolean(Constants.STREAMING_PROPERTY);
+    /**
+     * How the question and the answer reach the python oracle: "files" ("sat.cnf" and
+     * "sat.sol"), "temp" (unique temporary files), "pipe" (its standard input and output) or
+     * "server" (a pool of python oracles kept running, see PythonWorkerPool)
+     */
+    private final String transport = System.getProperty(Constants.ORACLE_TRANSPORT_PROPERTY,
+            Constants.FILES_TRANSPORT);
+    /**
+     * The directory of the temporary files
+     */
+    private final Path temporaryDirectory = temporaryDirectory();
+    /**
+     * The pysat engine used by the python oracle, or null for its default one
+     */
+    private final String engine;
+    /**
+     * The metrics receiving the phases of the questions (writing the CNF, running the
+     * python oracle, reading its answer) and the number of CNF bytes written
+     */
+    private Metrics metrics = Metrics.fromProperties();
+
+    public PythonOracle() {
+        this(null);
+    }
+
+    /**
+     * @param engine the pysat engine used by the python oracle (e.g. "g4", "cd19", "m22")
+     */
+    public PythonOracle(final String engine) {
+        this.engine = engine;
+        if (!Constants.FILES_TRANSPORT.equals(transport) && !Constants.TEMP_TRANSPORT.equals(transport)
+                && !Constants.PIPE_TRANSPORT.equals(transport)
+                && !Constants.SERVER_TRANSPORT.equals(transport)) {
+            throw new IllegalArgumentException("Unknown oracle transport: " + transport);
+        }
+    }
+
+    @Override
+    public OracleAnswer solve(ClauseSink question) throws IOException, InterruptedException {
+        if (question instanceof DimacsWriter) {
+            return ask(null, (DimacsWriter) question, this::readAnswer);
+        }
+        return ask((Formula) question, null, this::readAnswer);
+    }
+
+    /**
+     * The weighted question is written as WCNF, which sat_oracle.py gives to RC2
+     */
+    @Override
+    public OracleAnswer solveWeighted(WeightedFormula question) throws IOException, InterruptedException {
+        return ask(question, null, this::readWeightedAnswer);
+    }
+
+    /**
+     * The reader of the python oracle's answer to a question
+     */
+    private interface AnswerReader {
+        OracleAnswer read(FastReader reader) throws IOException;
+    }
+
+    /**
+     * Ask a question to the python oracle, through the selected transport
+     * @param formula the question, kept in memory, or null if it was streamed to its file
+     * @param streamed the writer of the streamed question, or null
+     * @param answerReader the reader of the answer
+     * @return the answer
+     */
+    private OracleAnswer ask(DimacsFormula formula, DimacsWriter streamed, AnswerReader answerReader)
+            throws IOException, InterruptedException {
+        if (Constants.PIPE_TRANSPORT.equals(transport)) {
+            byte[] result = metrics.measure(Metrics.PROCESS,
+                    () -> runOracle(formula, Constants.STANDARD_STREAM, Constants.STANDARD_STREAM));
+            return metrics.measure(Metrics.ANSWER_READ,
+                    () -> answerReader.read(new FastReader(new ByteArrayInputStream(result))));
+        }
+        if (Constants.SERVER_TRANSPORT.equals(transport)) {
+            byte[] answer = PythonWorkerPool.forEngine(engine).solve(formula, metrics);
+            return metrics.measure(Metrics.ANSWER_READ,
+                    () -> answerReader.read(new FastReader(new ByteArrayInputStream(answer))));
+        }
+
+        Path input = null;
+        Path output = null;
+        try {
+            if (streamed != null) {
+                input = streamed.getPath();
+                // the clauses are already in the file, fill in its header
+                metrics.time(Metrics.CNF_WRITE, () -> {
+                    streamed.close();
+                    metrics.add(CNF_BYTES, streamed.getNoBytes());
+                });
+            } else {
+                input = newQuestionPath();
+                Path path = input;
+                metrics.time(Metrics.CNF_WRITE, () -> writeFormula(formula, FileChannel.open(path,
+                        StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)));
+            }
+            output = Constants.TEMP_TRANSPORT.equals(transport)
+                    ? Files.createTempFile(temporaryDirectory, Constants.RETELE_SAT, Constants.SOL_EXTENSION)
+                    : Path.of(Constants.ORACLE_SOL);
+            String inputName = input.toString();
+            Path answer = output;
+            metrics.time(Metrics.PROCESS, () -> runOracle(null, inputName, answer.toString()));
+            return metrics.measure(Metrics.ANSWER_READ, () -> answerReader.read(FastReader.open(answer)));
+        } finally {
+            // the temporary files are removed even if the question was cancelled
+            if (Constants.TEMP_TRANSPORT.equals(transport)) {
+                if (input != null) {
+                    Files.deleteIfExists(input);
+                }
+                if (output != null) {
+                    Files.deleteIfExists(output);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void setMetrics(Metrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * With the "files" transport, the questions and answers share the "sat.cnf" and "sat.sol"
+     * files, so a single question can be asked at a time
+     */
+    @Override
+    public boolean isConcurrent() {
+        return !Constants.FILES_TRANSPORT.equals(transport);
+    }
+
+    /**
+     * When streaming (to a file), the clauses are written directly in the question's file,
+     * whose header is filled in with the exact counts once the question is complete
+     */
+    @Override
+    public ClauseSink newQuestion(int noVariables, long expectedClauses) throws IOException {
+        if (streaming && (Constants.FILES_TRANSPORT.equals(transport)
+                || Constants.TEMP_TRANSPORT.equals(transport))) {
+            DimacsWriter writer = DimacsWriter.withDeferredHeader(newQuestionPath());
+            for (int v = 0; v < noVariables; v++) {
+                writer.newVariable();
+            }
+            return writer;
+        }
+        return new Formula(noVariables, expectedClauses);
+    }
+
+    /**
+     * @return the path of the file of a new question: "sat.cnf", or a new temporary file
+     */
+    private Path newQuestionPath() throws IOException {
+        if (Constants.TEMP_TRANSPORT.equals(transport)) {
+            return Files.createTempFile(temporaryDirectory, Constants.RETELE_SAT, Constants.CNF_EXTENSION);
+        }
+        return Path.of(Constants.RETELE_SAT + Constants.CNF_EXTENSION);
+    }
+
+    /**
+     * Write the formula in the DIMACS format, counting its bytes
+     * @param formula the formula
+     * @param channel the channel, to a file or to the standard input of the python oracle
+     */
+    private void writeFormula(DimacsFormula formula, WritableByteChannel channel) throws IOException {
+        metrics.add(CNF_BYTES, formula.writeDimacs(channel));
+    }
+
+    /**
+     * Run the python oracle and wait for it to finish; with the pipe transport, the question
+     * goes through its standard input and the answer through its standard output
+     * @param formula the question written to its standard input, or null if it reads a file
+     * @param input the path of the question, or "-" for the standard input
+     * @param output the path of the answer, or "-" for the standard output
+     * @return the standard output of the oracle
+     */
+    private byte[] runOracle(DimacsFormula formula, String input, String output)
+            throws IOException, InterruptedException {
+        ProcessBuilder builder = new ProcessBuilder();
+        if (formula == null) {
+            builder.redirectErrorStream(true);
+        }
+        builder.command("python3", "sat_oracle.py", input, output);
+        if (engine != null) {
+            builder.command().add(engine);
+        }
+        Process process = builder.start();
+
+        // read the output on another thread, so that neither a long answer filling the pipe
+        // nor the question still being written can block the oracle; when the answer comes on
+        // the standard output, the errors are read apart
+        CompletableFuture<byte[]> result = readAsync(process.getInputStream());
+        CompletableFuture<byte[]> errors = formula == null ? result : readAsync(process.getErrorStream());
+        IOException writeError = null;
+        try {
+            if (formula != null) {
+                metrics.time(Metrics.CNF_WRITE, () -> writeFormula(formula,
+                        Channels.newChannel(process.getOutputStream())));
+            } else {
+                process.getOutputStream().close();
+            }
+        } catch (IOException e) {
+            // the oracle stopped reading, its exit code tells why
+            writeError = e;
+        } catch (UncheckedIOException e) {
+            writeError = e.getCause();
+        }
+
+        int exitCode;
+        try {
+            // wait for the oracle, so that an interrupted wait (e.g. a cancelled question) stops it
+            exitCode = process.waitFor();
+        } catch (InterruptedException e) {
+            process.destroyForcibly();
+            throw e;
+        }
+
+        byte[] bytes;
+        byte[] errorBytes;
+        try {
+            bytes = result.get();
+            errorBytes = errors.get();
+        } catch (ExecutionException e) {
+            throw new IOException(e.getCause());
+        }
+
+        if (exitCode != 0) {
+            // only this question fails, the other tasks (e.g. of a batch) go on
+            throw new IOException("The python oracle failed (exit code " + exitCode + "): "
+                    + new String(errorBytes, StandardCharsets.UTF_8).trim());
+        }
+        if (writeError != null) {
+            throw writeError;
+        }
+        return bytes;
+    }
+
+    /**
+     * Read a whole stream on a daemon thread
+     * @param stream the stream
+     * @return the bytes of the stream, once it is over
+     */
+    private static CompletableFuture<byte[]> readAsync(InputStream stream) {
+        CompletableFuture<byte[]> bytes = new CompletableFuture<>();
+        Thread reader = new Thread(() -> {
+            try (stream) {
+                bytes.complete(stream.readAllBytes());
+            } catch (IOException e) {
+                bytes.completeExceptionally(e);
+            }
+        }, "python-oracle-output");
+        reader.setDaemon(true);
+        reader.start();
+        return bytes;
+    }
+
+    /**
+     * Read the answer of the oracle
+     * @param reader the reader over the answer
+     * @return the answer
+     */
+    private OracleAnswer readAnswer(FastReader reader) throws IOException {
+        String status = reader.nextWord();
+        if (!status.equals(Constants.TRUE)) {
+            return OracleAnswer.unsatisfiable();
+        }
+        int noValues = reader.nextInt();
+        int[] model = new int[noValues];
+        for (int i = 0; i < noValues; i++) {
+            model[i] = reader.nextInt();
+        }
+        return OracleAnswer.satisfiable(model);
+    }
+
+    /**
+     * Read the answer of the oracle to a weighted question: the number of values and the
+     * cost, then the values ("False" if the hard clauses are unsatisfiable)
+     * @param reader the reader over the answer
+     * @return the answer
+     */
+    private OracleAnswer readWeightedAnswer(FastReader reader) throws IOException {
+        String noValues = reader.nextWord();
+        if (noValues.equals(Constants.FALSE)) {
+            return OracleAnswer.unsatisfiable();
+        }
+        long cost = Long.parseLong(reader.nextWord());
+        int[] model = new int[Integer.parseInt(noValues)];
+        for (int i = 0; i < model.length; i++) {
+            model[i] = reader.nextInt();
+        }
+        return OracleAnswer.optimum(model, cost);
+    }
+
+    /**
+     * The directory of the temporary files: the "oracle.tmpdir" system property if set,
+     * otherwise /dev/shm when available (kept in memory), otherwise the default one
+     */
+    private static Path temporaryDirectory() {
+        String directory = System.getProperty(Constants.ORACLE_TMPDIR_PROPERTY);
+        if (directory != null) {
+            return Path.of(directory);
+        }
+        Path shm = Path.of(Constants.SHARED_MEMORY_DIRECTORY);
+        if (Files.isDirectory(shm) && Files.isWritable(shm)) {
+            return shm;
+        }
+        return Path.of(System.getProperty("java.io.tmpdir"));
+    }
+}
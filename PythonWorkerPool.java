@@ -0,0 +1,213 @@
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Pool of python oracles started once ("sat_oracle.py --server") and kept running, so that
+ * a question does not pay for starting the interpreter and importing pysat; each question
+ * is sent to an idle worker as a line with its size in bytes followed by the formula, and
+ * the answer comes back the same way
+ */
+public class PythonWorkerPool {
+    /**
+     * The pools already created, one per pysat engine (the default one under the "" key)
+     */
+    private static final Map<String, PythonWorkerPool> POOLS = new HashMap<>();
+
+    /**
+     * The pysat engine of the workers, or null for the default one
+     */
+    private final String engine;
+    /**
+     * The maximum number of workers ("oracle.workers" system property, by default
+     * the number of available cores)
+     */
+    private final int maxWorkers;
+    /**
+     * The workers waiting for a question; like noWorkers, guarded by the pool's lock,
+     * which is notified whenever a worker becomes idle or is discarded
+     */
+    private final Deque<Worker> idleWorkers = new ArrayDeque<>();
+    /**
+     * The threads reading the answers, so that the thread asking the question
+     * can be interrupted while it waits
+     */
+    private final ExecutorService readers = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "python-worker-reader");
+        thread.setDaemon(true);
+        return thread;
+    });
+    /**
+     * Number of workers started so far (and not discarded)
+     */
+    private int noWorkers;
+
+    private PythonWorkerPool(final String engine, final int maxWorkers) {
+        this.engine = engine;
+        this.maxWorkers = maxWorkers;
+    }
+
+    /**
+     * @param engine the pysat engine, or null for the default one
+     * @return the pool of the workers using this engine, created the first time
+     */
+    public static synchronized PythonWorkerPool forEngine(String engine) {
+        return POOLS.computeIfAbsent(engine == null ? "" : engine, key -> new PythonWorkerPool(engine,
+                Integer.getInteger(Constants.ORACLE_WORKERS_PROPERTY,
+                        Runtime.getRuntime().availableProcessors())));
+    }
+
+    /**
+     * Ask a question to an idle worker, waiting for one if all of them are busy
+     * @param formula the question (CNF or WCNF)
+     * @param metrics the metrics receiving the phases of the question
+     * @return the answer, in the format of "sat.sol"
+     */
+    public byte[] solve(DimacsFormula formula, Metrics metrics) throws IOException, InterruptedException {
+        // the size of the question comes first, so it is formatted before taking a worker
+        ByteArrayOutputStream question = new ByteArrayOutputStream();
+        metrics.time(Metrics.CNF_WRITE, () -> formula.writeDimacs(Channels.newChannel(question)));
+        metrics.add(PythonOracle.CNF_BYTES, question.size());
+
+        Worker worker = metrics.measure(Metrics.POOL_WAIT, this::acquire);
+        boolean healthy = false;
+        try {
+            byte[] answer = metrics.measure(Metrics.PROCESS, () -> worker.ask(question));
+            healthy = true;
+            return answer;
+        } finally {
+            if (healthy) {
+                release(worker);
+            } else {
+                // the worker may be in the middle of a question, it cannot be reused
+                discard(worker);
+            }
+        }
+    }
+
+    /**
+     * Take an idle worker, start a new one if there are less than the maximum,
+     * otherwise wait for one to finish its question or to be discarded (its place
+     * then goes to a new worker)
+     */
+    private Worker acquire() throws IOException, InterruptedException {
+        synchronized (this) {
+            while (idleWorkers.isEmpty() && noWorkers >= maxWorkers) {
+                wait();
+            }
+            if (!idleWorkers.isEmpty()) {
+                return idleWorkers.poll();
+            }
+            noWorkers++;
+        }
+        // the python process is started outside the lock, so that the other questions go on
+        try {
+            return new Worker();
+        } catch (IOException e) {
+            synchronized (this) {
+                noWorkers--;
+                notifyAll();
+            }
+            throw e;
+        }
+    }
+
+    private synchronized void release(Worker worker) {
+        idleWorkers.add(worker);
+        notifyAll();
+    }
+
+    private synchronized void discard(Worker worker) {
+        worker.process.destroyForcibly();
+        noWorkers--;
+        notifyAll();
+    }
+
+    /**
+     * A running "sat_oracle.py --server" process
+     */
+    private class Worker {
+        private final Process process;
+        private final OutputStream requests;
+        private final InputStream answers;
+
+        Worker() throws IOException {
+            ProcessBuilder builder = new ProcessBuilder("python3", "sat_oracle.py",
+                    Constants.SERVER_OPTION);
+            if (engine != null) {
+                builder.command().add(engine);
+            }
+            // the answers come on the standard output, keep the errors apart
+            builder.redirectError(ProcessBuilder.Redirect.INHERIT);
+            process = builder.start();
+            requests = process.getOutputStream();
+            answers = process.getInputStream();
+        }
+
+        /**
+         * Send a question and wait for its answer; the answer is read on another thread,
+         * so that interrupting the wait (e.g. a cancelled question) does not hang
+         * @param question the formula, in the DIMACS format
+         * @return the answer
+         */
+        byte[] ask(ByteArrayOutputStream question) throws IOException, InterruptedException {
+            Future<byte[]> answer = readers.submit(() -> {
+                requests.write((question.size() + Constants.NEW_LINE).getBytes(StandardCharsets.US_ASCII));
+                question.writeTo(requests);
+                requests.flush();
+                return readFrame();
+            });
+            try {
+                return answer.get();
+            } catch (ExecutionException e) {
+                throw e.getCause() instanceof IOException ? (IOException) e.getCause()
+                        : new IOException(e.getCause());
+            }
+        }
+
+        /**
+         * Read an answer: its size in bytes, on a line, and then its bytes
+         */
+        private byte[] readFrame() throws IOException {
+            int size = Integer.parseInt(new String(readLine(), StandardCharsets.US_ASCII).trim());
+            byte[] frame = answers.readNBytes(size);
+            if (frame.length < size) {
+                throw new IOException("The python oracle stopped while answering");
+            }
+            return frame;
+        }
+
+        private byte[] readLine() throws IOException {
+            ByteArrayOutputStream line = new ByteArrayOutputStream();
+            int b;
+            while ((b = answers.read()) != '\n') {
+                if (b < 0) {
+                    throw new IOException("The python oracle stopped (exit code "
+                            + waitForExit() + ")");
+                }
+                line.write(b);
+            }
+            return line.toByteArray();
+        }
+
+        private int waitForExit() {
+            try {
+                return process.waitFor();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return -1;
+            }
+        }
+    }
+}
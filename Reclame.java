@@ -1,17 +1,14 @@
-import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
-import java.util.Scanner;
 
 class Reclame extends Task {
     /**
-     * The social network's adjacency matrix, with its values negated
-     * (false means there is an edge, true means there is not an edge),
-     * associated with the complementary graph
+     * The complementary graph of the social network, as a view over the
+     * social network's graph (there is an edge where the network has none)
      */
-    private boolean[][] complementarySocialNetwork;
+    private Graph complementarySocialNetwork;
     /**
      * Number of vertices of the social network, which represents
      * the number of members of the network
@@ -36,16 +33,92 @@ class Reclame extends Task {
      * within the Oracle's result
      */
     private List<Integer> oracleAnswerList;
+    /**
+     * The vertices of the clique found within the complementary graph
+     */
+    private List<Integer> clique;
+    /**
+     * The reduction to Retele used to ask the oracle for cliques
+     */
+    private Retele reduceToRetele;
+    /**
+     * The persistent solver of the incremental mode, and the outputs of its
+     * counter over the vertices (atLeast[k] implies a clique of dimension k)
+     */
+    private CdclSolver incrementalSolver;
+    private int[] atLeast;
+    /**
+     * The number of questions asked to the oracle
+     */
+    private int noOracleCalls;
+    /**
+     * The number of questions answered by the solution cache instead of the oracle
+     */
+    private int noCacheHits;
+    /**
+     * The canonical form of the complementary graph, whose cliques are kept within
+     * the solution cache for each value of k
+     */
+    private CanonicalGraph canonicalComplement;
+    /**
+     * The kernel of the vertex cover instance, when preprocessing
+     */
+    private VertexCoverKernel coverKernel;
+    /**
+     * Whether the cover is proven to be minimum; false once a question was given up
+     * at its deadline, the cover then being the best one found in time
+     */
+    private boolean optimal = true;
 
     /**
-     * Method which calls, in order, all the methods used to solve the task
+     * Method which calls, in order, all the methods used to solve the task, once its data is read
      */
     @Override
-    public void solve() throws IOException, InterruptedException {
-        readProblemData();
-        formulateOracleQuestion();
-        decipherOracleAnswer();
-        writeAnswer();
+    public void solveProblem() throws IOException, InterruptedException {
+        if (trySettleByHeuristics()) {
+            metrics.time(Metrics.WRITE, this::writeAnswer);
+            return;
+        }
+        CanonicalGraph canonicalNetwork = cache == null ? null : metrics.measure(Metrics.CANONICAL,
+                () -> new CanonicalGraph(((ComplementGraph) complementarySocialNetwork).getOriginal()));
+        if (canonicalNetwork != null) {
+            int[] values = metrics.measure(Metrics.CACHE,
+                    () -> cache.get(SolutionCache.COVER, canonicalNetwork, 0));
+            if (values != null) {
+                oracleAnswerList = new ArrayList<>();
+                for (int label : values) {
+                    oracleAnswerList.add(canonicalNetwork.getVertex(label));
+                }
+                Collections.sort(oracleAnswerList);
+                metrics.time(Metrics.WRITE, this::writeAnswer);
+                return;
+            }
+        }
+        if (preprocessing) {
+            metrics.time(Metrics.PREPROCESS, this::reduceToKernel);
+        }
+        if (noNetworkMembers > 0) {
+            // the search asks the oracle for each value of k, its questions are measured within it
+            metrics.time(Metrics.SEARCH, this::formulateOracleQuestion);
+            metrics.time(Metrics.DECIPHER, this::decipherOracleAnswer);
+        } else {
+            // the rules decided the whole cover, without asking the oracle
+            oracleAnswerList = new ArrayList<>();
+        }
+        if (coverKernel != null) {
+            oracleAnswerList = metrics.measure(Metrics.DECIPHER, () -> coverKernel.lift(oracleAnswerList));
+        }
+        // a cover which is not proven to be minimum is not kept
+        if (canonicalNetwork != null && optimal) {
+            metrics.time(Metrics.CACHE, () -> {
+                int[] values = new int[oracleAnswerList.size()];
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = canonicalNetwork.getCanonicalLabel(oracleAnswerList.get(i));
+                }
+                cache.put(SolutionCache.COVER, canonicalNetwork, 0, values);
+            });
+        }
+        metrics.time(Metrics.WRITE, this::writeAnswer);
     }
 
     /**
@@ -57,32 +130,76 @@ class Reclame extends Task {
         noNetworkMembers = n;
         noFriendships = m;
         finalGroupDimension = 0;
-        complementarySocialNetwork = new boolean[n + 1][n + 1];
     }
 
     /**
-     * Read the data from stdin
+     * Read the data from the input (stdin, unless the task is part of a batch)
      */
     @Override
-    public void readProblemData() {
-        Scanner reader = new Scanner(System.in);
+    public void readProblemData() throws IOException {
+        FastReader reader = getInput();
         int n = reader.nextInt();
         int m = reader.nextInt();
         initialiseData(n, m);
 
-        // initialise the adjacency with true values
-        for (boolean[] row : complementarySocialNetwork) {
-            Arrays.fill(row, true);
-        }
-
         // for each edge, consider that the graph is undirected
+        int[] from = new int[noFriendships];
+        int[] to = new int[noFriendships];
         for (int i = 0; i < noFriendships; i++) {
-            int u = reader.nextInt();
-            int v = reader.nextInt();
-            // if the edge exists, add false
-            complementarySocialNetwork[u][v] = false;
-            complementarySocialNetwork[v][u] = false;
+            from[i] = reader.nextInt();
+            to[i] = reader.nextInt();
         }
+        // the complementary graph is not materialised, the edges of the network
+        // are its non-edges
+        complementarySocialNetwork = new ComplementGraph(Graph.fromEdges(n, m, from, to));
+    }
+
+    /**
+     * The cover left by a clique of the complementary graph (found greedily, then by local
+     * search until the deadline) is minimum once it meets a lower bound: the edges of a
+     * greedy matching of the social network, or the vertices left out by a greedy coloring
+     * of the complementary graph (a clique has at most one vertex of each color)
+     */
+    @Override
+    public boolean settleByHeuristics(long deadline) {
+        Graph socialNetwork = ((ComplementGraph) complementarySocialNetwork).getOriginal();
+        int noColors = GraphHeuristics.greedyColoringSize(complementarySocialNetwork, deadline);
+        List<Integer> greedyClique = noColors < 0 ? null
+                : GraphHeuristics.greedyClique(complementarySocialNetwork, deadline);
+        int noMatchedEdges = greedyClique == null ? -1
+                : GraphHeuristics.greedyMatchingSize(socialNetwork, deadline);
+        if (noMatchedEdges < 0) {
+            return false;
+        }
+        int lowerBound = Math.max(noMatchedEdges, noNetworkMembers - noColors);
+        List<Integer> found = GraphHeuristics.localSearchClique(complementarySocialNetwork,
+                greedyClique, noNetworkMembers - lowerBound, deadline);
+        if (noNetworkMembers - found.size() > lowerBound) {
+            return false;
+        }
+        oracleAnswer = Constants.TRUE;
+        clique = found;
+        decipherOracleAnswer();
+        return true;
+    }
+
+    /**
+     * Reduce the social network to its vertex cover kernel (degree 0, 1 and 2 rules
+     * and crown rule), whose minimum cover is then searched as before; the complementary
+     * graph becomes a view over the kernel
+     */
+    public void reduceToKernel() {
+        coverKernel = new VertexCoverKernel(((ComplementGraph) complementarySocialNetwork).getOriginal());
+        coverKernel.reduce();
+        Subgraph kernel = coverKernel.getKernel();
+        if (Boolean.getBoolean(Constants.STATS_PROPERTY)) {
+            System.err.println("Reclame: kernel of " + kernel.getNoVertices() + " / "
+                    + noNetworkMembers + " vertices, " + coverKernel.getNoDecidedVertices()
+                    + " vertices of the cover decided by the rules");
+        }
+        noNetworkMembers = kernel.getNoVertices();
+        noFriendships = kernel.getNoEdges();
+        complementarySocialNetwork = new ComplementGraph(kernel.getGraph());
     }
 
     /**
@@ -90,29 +207,374 @@ class Reclame extends Task {
      */
     @Override
     public void formulateOracleQuestion() throws IOException, InterruptedException {
-        // start writing in the "sat.cnf" file; we will use a new instance of Retele which has the
-        // data of our current problem and use it to formulate questions to the Oracle
-        Retele reduceToRetele = new Retele(complementarySocialNetwork, noNetworkMembers,
-                noNetworkMembers * (noNetworkMembers - 1) / 2 - noFriendships);
+        boolean cliqueEngine = Constants.BNB_ENGINE.equals(
+                System.getProperty(Constants.RECLAME_ENGINE_PROPERTY, Constants.SAT_ENGINE));
+        String search = cliqueEngine ? Constants.BNB_ENGINE
+                : System.getProperty(Constants.RECLAME_SEARCH_PROPERTY, Constants.LINEAR_SEARCH);
+        boolean maxSat = search.equals(Constants.MAXSAT_SEARCH);
+        if (cliqueEngine) {
+            // the branch and bound engine searches the complementary graph itself
+        } else if (maxSat) {
+            // a single weighted question, formulated by maxSatSearch
+        } else if (Boolean.getBoolean(Constants.RECLAME_INCREMENTAL_PROPERTY)) {
+            metrics.time(Metrics.FORMULATE, this::prepareIncrementalSolver);
+        } else {
+            // start writing in the "sat.cnf" file; we will use a new instance of Retele which has
+            // the data of our current problem and use it to formulate questions to the Oracle
+            reduceToRetele = new Retele(complementarySocialNetwork, noNetworkMembers,
+                    noNetworkMembers * (noNetworkMembers - 1) / 2 - noFriendships);
+            reduceToRetele.setMetrics(metrics);
+            reduceToRetele.setBudget(budget);
+        }
 
-        // we will iterate though all the possible values of k (by finding the maximum dimension
-        // of the current complementary graph
+        noOracleCalls = 0;
+        noCacheHits = 0;
+        if (cache != null && !maxSat && !cliqueEngine) {
+            canonicalComplement = new CanonicalGraph(complementarySocialNetwork);
+        }
+        if (cliqueEngine) {
+            metrics.time(Metrics.CLIQUE, this::cliqueEngineSearch);
+        } else if (maxSat) {
+            maxSatSearch();
+        } else if (search.equals(Constants.BINARY_SEARCH)) {
+            binarySearch();
+        } else {
+            linearSearch();
+        }
+        if (!optimal && !cliqueEngine) {
+            keepBestClique();
+        }
+
+        metrics.add("oracle.calls", noOracleCalls);
+        metrics.add("cache.hits", noCacheHits);
+        if (incrementalSolver != null) {
+            metrics.add("solver.conflicts", incrementalSolver.getNoConflicts());
+            metrics.add("solver.decisions", incrementalSolver.getNoDecisions());
+            metrics.add("solver.propagations", incrementalSolver.getNoPropagations());
+        }
+        if (Boolean.getBoolean(Constants.STATS_PROPERTY)) {
+            System.err.println("Reclame: " + search + " search, " + noOracleCalls + " oracle calls, "
+                    + noCacheHits + " cached answers");
+        }
+    }
+
+    /**
+     * Iterate through all the possible values of k, from the maximum dimension of the
+     * complementary graph down, until the oracle finds a clique
+     */
+    private void linearSearch() throws IOException, InterruptedException {
         for (int k = noNetworkMembers; k >= 2; k--) {
-            // set the group dimension
-            reduceToRetele.setGroupDimension(k);
-            // contact the Oracle
-            reduceToRetele.formulateOracleQuestion();
-            reduceToRetele.askOracle();
-            reduceToRetele.decipherOracleAnswer();
-            this.oracleAnswer = reduceToRetele.getOracleAnswer();
-            // the Oracle's answer is true, we found our solution;
-            // otherwise, continue iteration
-            if (oracleAnswer.equals(Constants.TRUE)) {
+            Boolean found = askForClique(k);
+            if (found == null) {
+                // the question was given up, the next ones may still be answered in time
+                optimal = false;
+                if (budget.isExhausted()) {
+                    return;
+                }
+            } else if (found) {
+                // the Oracle's answer is true, we found our solution;
+                // otherwise, continue iteration
                 return;
             }
         }
     }
 
+    /**
+     * Bracket the maximum clique dimension of the complementary graph between the dimension
+     * of a greedy clique (lower bound) and the number of colors of a greedy coloring (upper
+     * bound), then binary search within this range; each clique found by the oracle raises
+     * the lower bound to its own dimension, which can exceed the asked one
+     */
+    private void binarySearch() throws IOException, InterruptedException {
+        List<Integer> greedyClique = GraphHeuristics.greedyClique(complementarySocialNetwork);
+        int lowerBound = greedyClique.size();
+        int upperBound = Math.min(noNetworkMembers,
+                GraphHeuristics.greedyColoringSize(complementarySocialNetwork));
+
+        // the greedy clique is the answer, unless the oracle finds a greater one
+        oracleAnswer = lowerBound > 0 ? Constants.TRUE : Constants.FALSE;
+        clique = greedyClique;
+        List<Integer> bestClique = clique;
+
+        // the answers cached for some values of k tighten the bounds
+        if (canonicalComplement != null) {
+            for (int k = lowerBound + 1; k <= upperBound; k++) {
+                Boolean cached = readCachedClique(k);
+                if (cached == null) {
+                    continue;
+                }
+                if (!cached) {
+                    upperBound = k - 1;
+                    break;
+                }
+                if (clique.size() > lowerBound) {
+                    bestClique = clique;
+                    lowerBound = clique.size();
+                }
+            }
+        }
+
+        while (lowerBound < upperBound) {
+            int k = (lowerBound + upperBound + 1) / 2;
+            Boolean found = askForClique(k);
+            if (found == null) {
+                // the question was given up: search below k, where cliques are easier to find
+                optimal = false;
+                if (budget.isExhausted()) {
+                    break;
+                }
+                upperBound = k - 1;
+            } else if (found) {
+                bestClique = clique;
+                lowerBound = Math.max(k, clique.size());
+            } else {
+                upperBound = k - 1;
+            }
+        }
+
+        oracleAnswer = lowerBound > 0 ? Constants.TRUE : Constants.FALSE;
+        clique = bestClique;
+    }
+
+    /**
+     * Search the maximum clique of the complementary graph with the branch and bound engine
+     * (see CliqueSearch) instead of asking the oracle; its first branch is already a greedy
+     * clique, so a search given up at its deadline keeps the greatest clique found in time
+     * (or a greedy one, if it was given up before reaching any)
+     */
+    private void cliqueEngineSearch() throws IOException, InterruptedException {
+        CliqueSearch search = new CliqueSearch(((ComplementGraph) complementarySocialNetwork).getOriginal(), true);
+        Boolean found = budget.limit(() -> search.search(1, noNetworkMembers));
+        metrics.add("clique.nodes", search.getNoNodes());
+        clique = search.getClique();
+        oracleAnswer = Constants.TRUE;
+        if (found == null) {
+            metrics.add("oracle.timeouts", 1);
+            optimal = false;
+            if (clique.isEmpty()) {
+                keepBestClique();
+            }
+        }
+    }
+
+    /**
+     * Ask the oracle for the minimum vertex cover at once, as a weighted (MaxSAT) question
+     * instead of a question per value of k: the variable x_v means "v is within the cover",
+     * each friendship (a non-edge of the complementary graph) gives the hard clause
+     * (x_u v x_v) and each vertex the soft clause (!x_v); the vertices left out of the cover
+     * form the maximum clique of the complementary graph
+     */
+    private void maxSatSearch() throws IOException, InterruptedException {
+        if (oracle instanceof CdclOracle) {
+            warnOnce("-D" + Constants.RECLAME_SEARCH_PROPERTY + "=" + Constants.MAXSAT_SEARCH
+                    + " on the CDCL oracle descends with a unary counter of up to n * cost variables;"
+                    + " -Doracle=python solves the weighted question itself with RC2");
+        }
+        WeightedFormula question = new WeightedFormula(noNetworkMembers, noFriendships, noNetworkMembers);
+        metrics.time(Metrics.FORMULATE, () -> formulateWeightedQuestion(question));
+        metrics.add("question.variables", question.getNoVariables());
+        metrics.add("question.clauses", question.getNoClauses());
+        metrics.add("question.literals", question.getNoLiterals());
+
+        noOracleCalls++;
+        OracleAnswer answer = metrics.measure(Metrics.ORACLE,
+                () -> budget.limit(() -> oracle.solveWeighted(question)));
+        if (answer == null) {
+            metrics.add("oracle.timeouts", 1);
+            optimal = false;
+            oracleAnswer = Constants.UNKNOWN;
+            return;
+        }
+        if (!answer.isProven()) {
+            // given up during the descent: the best cover found so far
+            metrics.add("oracle.timeouts", 1);
+            optimal = false;
+        }
+        // the hard clauses are always satisfiable, e.g. by taking all the vertices
+        int[] model = answer.getModel();
+        clique = new ArrayList<>();
+        for (int v = 1; v <= noNetworkMembers; v++) {
+            if (model[v - 1] < 0) {
+                clique.add(v);
+            }
+        }
+        oracleAnswer = Constants.TRUE;
+    }
+
+    /**
+     * Write the clauses of the weighted question (see maxSatSearch)
+     * @param question the weighted question
+     */
+    public void formulateWeightedQuestion(WeightedFormula question) {
+        Formula hardClauses = question.getHardClauses();
+        try (Metrics.ClauseCount count = metrics.countClauses(hardClauses)) {
+            for (int v = 1; v < noNetworkMembers; v++) {
+                for (int w = complementarySocialNetwork.nextNonNeighbour(v, v + 1); w != -1;
+                     w = complementarySocialNetwork.nextNonNeighbour(v, w + 1)) {
+                    hardClauses.addClause(v, w);
+                }
+            }
+            count.mark(Metrics.NON_EDGE_CASE);
+        }
+        Formula softClauses = question.getSoftClauses();
+        try (Metrics.ClauseCount count = metrics.countClauses(softClauses)) {
+            for (int v = 1; v <= noNetworkMembers; v++) {
+                softClauses.addClause(-v);
+            }
+            count.mark(Metrics.SOFT_CASE);
+        }
+    }
+
+    /**
+     * Ask whether the complementary graph has a clique of dimension k: from the solution
+     * cache if the answer is there, otherwise from the oracle, keeping its answer in the cache
+     * @param k the dimension of the clique
+     * @return true if a clique was found, kept in clique, false if there is none,
+     * or null if the question was given up at its deadline
+     */
+    private Boolean askForClique(int k) throws IOException, InterruptedException {
+        if (canonicalComplement != null) {
+            Boolean cached = readCachedClique(k);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        Boolean found = askOracleForClique(k);
+        if (canonicalComplement != null && found != null) {
+            int[] values = new int[found ? clique.size() + 1 : 1];
+            values[0] = found ? 1 : 0;
+            for (int i = 1; i < values.length; i++) {
+                values[i] = canonicalComplement.getCanonicalLabel(clique.get(i - 1));
+            }
+            cache.put(SolutionCache.CLIQUE, canonicalComplement, k, values);
+        }
+        return found;
+    }
+
+    /**
+     * Look for the answer to "is there a clique of dimension k" within the solution cache
+     * (shared with Retele, asked about the complementary graph)
+     * @param k the dimension of the clique
+     * @return true (with the clique kept in clique) or false if the answer was cached,
+     * null otherwise
+     */
+    private Boolean readCachedClique(int k) {
+        int[] values = cache.get(SolutionCache.CLIQUE, canonicalComplement, k);
+        if (values == null) {
+            return null;
+        }
+        noCacheHits++;
+        if (values[0] == 1) {
+            oracleAnswer = Constants.TRUE;
+            clique = new ArrayList<>();
+            for (int i = 1; i < values.length; i++) {
+                clique.add(canonicalComplement.getVertex(values[i]));
+            }
+            return true;
+        }
+        // the incremental solver learns it as well, for the next questions
+        if (incrementalSolver != null) {
+            incrementalSolver.addClause(-atLeast[k]);
+        }
+        oracleAnswer = Constants.FALSE;
+        return false;
+    }
+
+    /**
+     * Ask the oracle whether the complementary graph has a clique of dimension k
+     * @param k the dimension of the clique
+     * @return true if the oracle found a clique, kept in clique, false if there is none,
+     * or null if the question was given up at its deadline
+     */
+    private Boolean askOracleForClique(int k) throws IOException, InterruptedException {
+        noOracleCalls++;
+        if (incrementalSolver != null) {
+            // a cancelled search leaves the solver ready for the next questions
+            Boolean found = metrics.measure(Metrics.ORACLE,
+                    () -> budget.limit(() -> incrementalSolver.solve(atLeast[k])));
+            if (found == null) {
+                metrics.add("oracle.timeouts", 1);
+                oracleAnswer = Constants.UNKNOWN;
+                return null;
+            }
+            if (found) {
+                oracleAnswer = Constants.TRUE;
+                // all the chosen vertices form a clique, which can exceed k
+                int[] model = incrementalSolver.getModel();
+                clique = new ArrayList<>();
+                for (int v = 1; v <= noNetworkMembers; v++) {
+                    if (model[v - 1] > 0) {
+                        clique.add(v);
+                    }
+                }
+                return true;
+            }
+            // there is no clique of dimension k, keep this for the next questions
+            incrementalSolver.addClause(-atLeast[k]);
+            oracleAnswer = Constants.FALSE;
+            return false;
+        }
+
+        // set the group dimension
+        reduceToRetele.setGroupDimension(k);
+        // contact the Oracle
+        metrics.time(Metrics.FORMULATE, reduceToRetele::formulateOracleQuestion);
+        reduceToRetele.askOracle();
+        metrics.time(Metrics.DECIPHER, reduceToRetele::decipherOracleAnswer);
+        this.oracleAnswer = reduceToRetele.getOracleAnswer();
+        if (oracleAnswer.equals(Constants.UNKNOWN)) {
+            return null;
+        }
+        if (oracleAnswer.equals(Constants.TRUE)) {
+            clique = reduceToRetele.getOracleAnswerList();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Once a question was given up, the clique found so far (if any) may not be the
+     * maximum one: keep the greater of it and a greedy clique, as the best answer in time
+     */
+    private void keepBestClique() {
+        List<Integer> greedyClique = GraphHeuristics.greedyClique(complementarySocialNetwork);
+        if (!Constants.TRUE.equals(oracleAnswer) || greedyClique.size() > clique.size()) {
+            oracleAnswer = Constants.TRUE;
+            clique = greedyClique;
+        }
+    }
+
+    /**
+     * Prepare a single, persistent CDCL solver for the questions to the oracle: the
+     * clique is encoded with one variable per vertex (x_v, "v is within the clique"), so
+     * each non-edge of the complementary graph gives a single clause, written only once,
+     * and the clique dimension is selected by assuming the output of a unary counter
+     * (sequential counter or totalizer, as selected by "encoding.amk");
+     * the learnt clauses and the heuristic state are kept from one value of k to another
+     */
+    public void prepareIncrementalSolver() {
+        warnIfOracleIgnored(Constants.RECLAME_INCREMENTAL_PROPERTY);
+        incrementalSolver = new CdclSolver();
+        incrementalSolver.ensureVariables(noNetworkMembers);
+
+        try (Metrics.ClauseCount count = metrics.countClauses(incrementalSolver)) {
+            // two vertices not connected within the complementary graph cannot both be in the clique
+            for (int v = 1; v < noNetworkMembers; v++) {
+                for (int w = complementarySocialNetwork.nextNonNeighbour(v, v + 1); w != -1;
+                     w = complementarySocialNetwork.nextNonNeighbour(v, w + 1)) {
+                    incrementalSolver.addClause(-v, -w);
+                }
+            }
+            count.mark(Metrics.NON_EDGE_CASE);
+            int[] vertices = new int[noNetworkMembers];
+            for (int v = 1; v <= noNetworkMembers; v++) {
+                vertices[v - 1] = v;
+            }
+            atLeast = CardinalityEncoder.atLeastCounter(incrementalSolver, vertices, atMostKEncoding);
+            count.mark(Metrics.CARDINALITY_CASE);
+        }
+    }
+
     /**
      * Add all the graph's nodes to the list of answers
      */
@@ -127,46 +589,50 @@ class Reclame extends Task {
      * Decipher the answer from the Oracle
      */
     @Override
-    public void decipherOracleAnswer() throws IOException {
-        // read the answer from "sat.sol"
-        Scanner reader = new Scanner(new File(Constants.ORACLE_SOL));
-        // keep the Oracle's answer
-        oracleAnswer = reader.nextLine();
-
+    public void decipherOracleAnswer() {
+        // if the oracle found no clique of dimension 2 or more, any vertex
+        // is a maximum clique of the complementary graph
+        if (!Constants.TRUE.equals(oracleAnswer)) {
+            initialiseOracleAnswerList();
+            if (!oracleAnswerList.isEmpty()) {
+                oracleAnswerList.remove(0);
+            }
+        }
         // if the given case is a success
-        if (oracleAnswer.equals(Constants.TRUE)) {
-            // read the list of values
-            int noValues = reader.nextInt();
+        if (Constants.TRUE.equals(oracleAnswer)) {
+            // eliminate the clique's vertices from the answers list; the result
+            // will be consisted of the remaining nodes
             initialiseOracleAnswerList();
-            for (int i = 0; i < noValues; i++) {
-                int value = reader.nextInt();
-                // if the value is positive
-                if (value > 0) {
-                    // decode the answer by reversing the encoding process, and
-                    // eliminate the found node from the answers list; the result
-                    // will be consisted of the remaining nodes
-                    if (value % noNetworkMembers != 0) {
-                        oracleAnswerList.remove(oracleAnswerList.indexOf(value % noNetworkMembers));
-                    } else {
-                        oracleAnswerList.remove(oracleAnswerList.indexOf(noNetworkMembers));
-                    }
-                }
+            for (int v : clique) {
+                oracleAnswerList.remove(Integer.valueOf(v));
             }
         }
     }
 
     /**
-     * Write the answer
+     * Write the answer; with a time budget, it is followed by a line telling whether
+     * the cover is "optimal" or "not proven" (the best one found in time)
      */
     @Override
     public void writeAnswer() {
         // is the answer is true, write the list of result vertices
         for (int i = 0; i < oracleAnswerList.size(); i++) {
-            System.out.print(oracleAnswerList.get(i));
+            output.print(oracleAnswerList.get(i));
             if (i < oracleAnswerList.size() - 1) {
-                System.out.print(" ");
+                output.print(" ");
             }
         }
+        if (budget.isLimited()) {
+            output.println();
+            output.print(optimal ? Constants.OPTIMAL : Constants.NOT_PROVEN);
+        }
+    }
+
+    /**
+     * @return whether the cover is proven to be minimum (false if a question was given up)
+     */
+    public boolean isOptimal() {
+        return optimal;
     }
 
     /**
@@ -1,14 +1,20 @@
-import java.io.BufferedWriter;
-import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.util.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 class Registre extends Task {
     /**
-     * The variables' adjacency matrix
+     * The variables' interference graph
      */
-    private boolean[][] variablesAdjacencyMatrix;
+    private Graph variablesGraph;
     /**
      * Number of vertices of the variables' matrix, which represents
      * the number of variables
@@ -33,17 +39,70 @@ class Registre extends Task {
      * register as value
      */
     private Map<Integer, Integer> oracleAnswerMap;
+    /**
+     * Whether the question of a connected component was given up at its deadline
+     */
+    private volatile boolean componentUnknown;
+    /**
+     * Whether the minimum number of registers is searched ("registre.minimize" system
+     * property), instead of deciding whether k registers are enough
+     */
+    private boolean minimize = Boolean.getBoolean(Constants.REGISTRE_MINIMIZE_PROPERTY);
+    /**
+     * The number of questions asked to the solver while minimizing
+     */
+    private int noOracleCalls;
+    /**
+     * Whether the number of registers is proven to be minimum; false once a question
+     * was given up at its deadline, the assignment then being the best one found in time
+     */
+    private boolean optimal = true;
+
+    public Registre(final Graph variablesGraph, final int noVariables,
+                    final int noVariablesRelations, final int noRegisters) {
+        this.variablesGraph = variablesGraph;
+        this.noVariables = noVariables;
+        this.noVariablesRelations = noVariablesRelations;
+        this.noRegisters = noRegisters;
+    }
+
+    public Registre() {}
 
     /**
-     * Method which calls, in order, all the methods used to solve the task
+     * Method which calls, in order, all the methods used to solve the task, once its data is read
      */
     @Override
-    public void solve() throws IOException, InterruptedException {
-        readProblemData();
-        formulateOracleQuestion();
-        askOracle();
-        decipherOracleAnswer();
-        writeAnswer();
+    public void solveProblem() throws IOException, InterruptedException {
+        if (minimize) {
+            metrics.time(Metrics.SEARCH, this::minimizeRegisters);
+            metrics.time(Metrics.WRITE, this::writeAnswer);
+            return;
+        }
+        if (trySettleByHeuristics()) {
+            metrics.time(Metrics.WRITE, this::writeAnswer);
+            return;
+        }
+        CanonicalGraph canonicalGraph = cache == null ? null
+                : metrics.measure(Metrics.CANONICAL, () -> new CanonicalGraph(variablesGraph));
+        if (canonicalGraph != null && metrics.measure(Metrics.CACHE, () -> readCachedAnswer(canonicalGraph))) {
+            metrics.time(Metrics.WRITE, this::writeAnswer);
+            return;
+        }
+        if (preprocessing || Boolean.getBoolean(Constants.REGISTRE_COMPONENTS_PROPERTY)) {
+            solveByComponents();
+        } else {
+            if (Boolean.getBoolean(Constants.COMPARE_ENCODINGS_PROPERTY)) {
+                compareEncodings();
+            }
+            metrics.time(Metrics.FORMULATE, this::formulateOracleQuestion);
+            askOracle();
+            metrics.time(Metrics.DECIPHER, this::decipherOracleAnswer);
+        }
+        // an unknown answer (a question was given up) is not kept
+        if (canonicalGraph != null && !oracleAnswer.equals(Constants.UNKNOWN)) {
+            metrics.time(Metrics.CACHE, () -> writeCachedAnswer(canonicalGraph));
+        }
+        metrics.time(Metrics.WRITE, this::writeAnswer);
     }
 
     /**
@@ -56,27 +115,366 @@ class Registre extends Task {
         noVariables = n;
         noVariablesRelations = m;
         noRegisters = k;
-        variablesAdjacencyMatrix = new boolean[n + 1][n + 1];
     }
 
     /**
-     * Read the data from stdin
+     * Read the data from the input (stdin, unless the task is part of a batch)
      */
     @Override
-    public void readProblemData() {
-        Scanner reader = new Scanner(System.in);
+    public void readProblemData() throws IOException {
+        FastReader reader = getInput();
         int n = reader.nextInt();
         int m = reader.nextInt();
         int k = reader.nextInt();
         initialiseData(n, m, k);
 
         // for each edge, consider that the graph is undirected
+        int[] from = new int[noVariablesRelations];
+        int[] to = new int[noVariablesRelations];
         for (int i = 0; i < noVariablesRelations; i++) {
-            int u = reader.nextInt();
-            int v = reader.nextInt();
-            variablesAdjacencyMatrix[u][v] = true;
-            variablesAdjacencyMatrix[v][u] = true;
+            from[i] = reader.nextInt();
+            to[i] = reader.nextInt();
+        }
+        variablesGraph = Graph.fromEdges(n, m, from, to);
+    }
+
+    /**
+     * A DSATUR coloring with at most k colors settles the answer as True; a clique of more
+     * than k vertices, found greedily or else by local search until the deadline, settles
+     * it as False
+     */
+    @Override
+    public boolean settleByHeuristics(long deadline) {
+        int[] registers = GraphHeuristics.dsaturColoring(variablesGraph, deadline);
+        if (registers == null) {
+            return false;
+        }
+        if (countRegisters(registers) <= noRegisters) {
+            oracleAnswer = Constants.TRUE;
+            oracleAnswerMap = new TreeMap<>();
+            for (int v = 1; v <= noVariables; v++) {
+                oracleAnswerMap.put(v, registers[v]);
+            }
+            return true;
+        }
+        List<Integer> clique = GraphHeuristics.greedyClique(variablesGraph, deadline);
+        if (clique == null) {
+            return false;
+        }
+        clique = GraphHeuristics.localSearchClique(variablesGraph, clique, noRegisters + 1, deadline);
+        if (clique.size() > noRegisters) {
+            oracleAnswer = Constants.FALSE;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Look for the answer within the solution cache (the status, then the register
+     * of each variable, in the order of the canonical labels)
+     * @param canonicalGraph the canonical form of the variables' graph
+     * @return true if the answer was cached
+     */
+    private boolean readCachedAnswer(CanonicalGraph canonicalGraph) {
+        int[] values = cache.get(SolutionCache.COLORING, canonicalGraph, noRegisters);
+        if (values == null) {
+            return false;
+        }
+        oracleAnswer = values[0] == 1 ? Constants.TRUE : Constants.FALSE;
+        oracleAnswerMap = new TreeMap<>();
+        for (int label = 1; label < values.length; label++) {
+            oracleAnswerMap.put(canonicalGraph.getVertex(label), values[label]);
+        }
+        return true;
+    }
+
+    /**
+     * Keep the answer within the solution cache
+     * @param canonicalGraph the canonical form of the variables' graph
+     */
+    private void writeCachedAnswer(CanonicalGraph canonicalGraph) {
+        boolean found = oracleAnswer.equals(Constants.TRUE);
+        int[] values = new int[found ? noVariables + 1 : 1];
+        values[0] = found ? 1 : 0;
+        for (int label = 1; label < values.length; label++) {
+            values[label] = oracleAnswerMap.get(canonicalGraph.getVertex(label));
         }
+        cache.put(SolutionCache.COLORING, canonicalGraph, noRegisters, values);
+    }
+
+    /**
+     * Give each connected component of the graph to the oracle on its own (concurrently,
+     * with -Dparallel=true); when preprocessing, a vertex with less than k neighbours can
+     * always be assigned a register once its neighbours are, so these vertices are first
+     * removed, repeatedly, and assigned registers at the end, in reverse order of removal
+     */
+    public void solveByComponents() throws IOException, InterruptedException {
+        List<Integer> removed = new ArrayList<>();
+        List<Integer> kept = metrics.measure(Metrics.PREPROCESS,
+                () -> GraphReductions.peel(variablesGraph, preprocessing ? noRegisters : 0, removed));
+        List<List<Integer>> components = metrics.measure(Metrics.PREPROCESS,
+                () -> GraphReductions.components(variablesGraph, kept));
+        metrics.add("components", components.size());
+        if (Boolean.getBoolean(Constants.STATS_PROPERTY)) {
+            System.err.println("Registre: kernel of " + kept.size() + " / " + noVariables
+                    + " vertices, in " + components.size() + " components");
+        }
+
+        oracleAnswerMap = new TreeMap<>();
+        boolean colorable = ParallelClauses.isEnabled() && oracle.isConcurrent()
+                ? solveComponentsConcurrently(components) : solveComponentsInOrder(components);
+        if (!colorable) {
+            oracleAnswer = Constants.FALSE;
+            return;
+        }
+        if (componentUnknown) {
+            // no component is known to need more than k registers, but one may
+            oracleAnswer = Constants.UNKNOWN;
+            return;
+        }
+        oracleAnswer = Constants.TRUE;
+
+        for (int r = removed.size() - 1; r >= 0; r--) {
+            int v = removed.get(r);
+            // less than k of the assigned variables are related to v
+            boolean[] used = new boolean[noRegisters + 1];
+            for (int w = variablesGraph.nextNeighbour(v, 1); w != -1;
+                 w = variablesGraph.nextNeighbour(v, w + 1)) {
+                Integer register = oracleAnswerMap.get(w);
+                if (register != null) {
+                    used[register] = true;
+                }
+            }
+            int register = 1;
+            while (used[register]) {
+                register++;
+            }
+            oracleAnswerMap.put(v, register);
+        }
+    }
+
+    /**
+     * Solve the components one after the other, stopping at the first one which
+     * cannot be colored (then, neither can the graph); a component whose answer is
+     * unknown does not stop the others, one of which can still prove that it cannot
+     * @return whether all the components can be assigned k registers
+     */
+    private boolean solveComponentsInOrder(List<List<Integer>> components)
+            throws IOException, InterruptedException {
+        for (List<Integer> component : components) {
+            Map<Integer, Integer> registers = solveComponent(component);
+            if (registers == null) {
+                return false;
+            }
+            oracleAnswerMap.putAll(registers);
+        }
+        return true;
+    }
+
+    /**
+     * Solve the components on a thread pool, the largest ones first, merging their
+     * registers as they are found; at the first component which cannot be colored,
+     * the pool is shut down and the other answers are not waited for
+     * @return whether all the components can be assigned k registers
+     */
+    private boolean solveComponentsConcurrently(List<List<Integer>> components)
+            throws IOException, InterruptedException {
+        List<List<Integer>> largestFirst = new ArrayList<>(components);
+        largestFirst.sort((first, second) -> second.size() - first.size());
+
+        // daemon threads, so that the questions left running do not keep the program alive
+        ExecutorService pool = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(),
+                runnable -> {
+                    Thread thread = new Thread(runnable);
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        try {
+            CompletionService<Map<Integer, Integer>> answers = new ExecutorCompletionService<>(pool);
+            for (List<Integer> component : largestFirst) {
+                answers.submit(() -> solveComponent(component));
+            }
+            for (int c = 0; c < largestFirst.size(); c++) {
+                Map<Integer, Integer> registers = answers.take().get();
+                if (registers == null) {
+                    return false;
+                }
+                oracleAnswerMap.putAll(registers);
+            }
+            return true;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Ask the oracle for the registers of a connected component
+     * @param component the vertices of the component
+     * @return the registers of the component's variables (within the whole graph),
+     * or null if the component cannot be assigned k registers (none, and componentUnknown
+     * set, if the oracle's answer is unknown)
+     */
+    private Map<Integer, Integer> solveComponent(List<Integer> component)
+            throws IOException, InterruptedException {
+        Subgraph subgraph = Subgraph.induced(variablesGraph, component);
+        Registre registre = new Registre(subgraph.getGraph(), subgraph.getNoVertices(),
+                subgraph.getNoEdges(), noRegisters);
+        registre.setMetrics(metrics);
+        registre.setBudget(budget);
+        metrics.time(Metrics.FORMULATE, registre::formulateOracleQuestion);
+        registre.askOracle();
+        metrics.time(Metrics.DECIPHER, registre::decipherOracleAnswer);
+        if (registre.oracleAnswer.equals(Constants.UNKNOWN)) {
+            componentUnknown = true;
+            return new HashMap<>();
+        }
+        if (!registre.oracleAnswer.equals(Constants.TRUE)) {
+            return null;
+        }
+        Map<Integer, Integer> registers = new HashMap<>();
+        for (Map.Entry<Integer, Integer> entry : registre.oracleAnswerMap.entrySet()) {
+            registers.put(subgraph.getOriginalVertex(entry.getKey()), entry.getValue());
+        }
+        return registers;
+    }
+
+    /**
+     * Find the minimum number of registers in a single run, ignoring k: DSATUR gives an
+     * upper bound (and an assignment), a greedy clique a lower bound; in between, a single
+     * persistent solver is encoded once, for one register less than the upper bound, with a
+     * selector per register (e_i, "register i can be used"), and each question disables the
+     * registers above the asked number by assuming !e_i; every assignment found lowers the
+     * number to the registers it actually uses, until the solver proves that one less is
+     * not enough (or the lower bound is reached)
+     */
+    public void minimizeRegisters() throws IOException, InterruptedException {
+        warnIfOracleIgnored(Constants.REGISTRE_MINIMIZE_PROPERTY);
+        int[] registers = GraphHeuristics.dsaturColoring(variablesGraph);
+        int upperBound = countRegisters(registers);
+        int lowerBound = GraphHeuristics.greedyClique(variablesGraph).size();
+        noOracleCalls = 0;
+
+        if (lowerBound < upperBound) {
+            noRegisters = upperBound - 1;
+            CdclSolver solver = metrics.measure(Metrics.FORMULATE, this::prepareMinimizingSolver);
+            for (int limit = upperBound - 1; limit >= lowerBound; limit = upperBound - 1) {
+                int[] disabled = new int[noRegisters - limit];
+                for (int i = limit + 1; i <= noRegisters; i++) {
+                    disabled[i - limit - 1] = -getSelector(i);
+                }
+                noOracleCalls++;
+                Boolean found = metrics.measure(Metrics.ORACLE,
+                        () -> budget.limit(() -> solver.solve(disabled)));
+                if (found == null) {
+                    metrics.add("oracle.timeouts", 1);
+                    optimal = false;
+                    break;
+                }
+                if (!found) {
+                    break;
+                }
+                registers = registersOf(solver.getModel());
+                upperBound = countRegisters(registers);
+            }
+            metrics.add("solver.conflicts", solver.getNoConflicts());
+            metrics.add("solver.decisions", solver.getNoDecisions());
+            metrics.add("solver.propagations", solver.getNoPropagations());
+        }
+        metrics.add("oracle.calls", noOracleCalls);
+        if (Boolean.getBoolean(Constants.STATS_PROPERTY)) {
+            System.err.println("Registre: " + upperBound + " registers (at least " + lowerBound
+                    + "), " + noOracleCalls + " oracle calls");
+        }
+
+        noRegisters = upperBound;
+        oracleAnswer = Constants.TRUE;
+        oracleAnswerMap = new TreeMap<>();
+        for (int v = 1; v <= noVariables; v++) {
+            oracleAnswerMap.put(v, registers[v]);
+        }
+    }
+
+    /**
+     * Encode the variables' graph for noRegisters registers on a new solver, each
+     * register having a selector: the first and second clause cases, the vertices of a
+     * greedy clique pinned to the first registers, and (!x_vi v e_i) for each variable
+     * v and register i; the third clause case is left out, since a variable assigned
+     * to several registers can keep any of them
+     * @return the solver
+     */
+    public CdclSolver prepareMinimizingSolver() {
+        CdclSolver solver = new CdclSolver();
+        solver.ensureVariables(noVariables * noRegisters + noRegisters);
+        try (Metrics.ClauseCount count = metrics.countClauses(solver)) {
+            for (int v = 1; v <= noVariables; v++) {
+                firstClauseCase(solver, v);
+                count.mark(Metrics.FIRST_CASE);
+                secondClauseCase(solver, v);
+                count.mark(Metrics.SECOND_CASE);
+                for (int i = 1; i <= noRegisters; i++) {
+                    solver.addClause(-((v - 1) * noRegisters + (i - 1) + 1), getSelector(i));
+                }
+                count.mark(Metrics.SELECTOR_CASE);
+            }
+            pinnedCliqueClauseCase(solver);
+            count.mark(Metrics.SYMMETRY_CASE);
+        }
+        return solver;
+    }
+
+    /**
+     * @param i the register
+     * @return the selector of the register, after the noVariables * noRegisters variables
+     */
+    private int getSelector(int i) {
+        return noVariables * noRegisters + i;
+    }
+
+    /**
+     * Read the assignment of a model of the minimizing solver, numbering the registers
+     * it uses from 1, in order
+     * @param model the model
+     * @return the register of each variable (indexed from 1)
+     */
+    private int[] registersOf(int[] model) {
+        int[] registers = new int[noVariables + 1];
+        int[] renumbered = new int[noRegisters + 1];
+        boolean[] used = new boolean[noRegisters + 1];
+        for (int v = 1; v <= noVariables; v++) {
+            int i = 1;
+            while (model[(v - 1) * noRegisters + (i - 1)] < 0) {
+                i++;
+            }
+            registers[v] = i;
+            used[i] = true;
+        }
+        int noUsed = 0;
+        for (int i = 1; i <= noRegisters; i++) {
+            if (used[i]) {
+                renumbered[i] = ++noUsed;
+            }
+        }
+        for (int v = 1; v <= noVariables; v++) {
+            registers[v] = renumbered[registers[v]];
+        }
+        return registers;
+    }
+
+    /**
+     * @param registers the register of each variable (indexed from 1)
+     * @return the number of registers used
+     */
+    private static int countRegisters(int[] registers) {
+        int count = 0;
+        for (int register : registers) {
+            count = Math.max(count, register);
+        }
+        return count;
     }
 
     /**
@@ -84,78 +482,121 @@ class Registre extends Task {
      */
     @Override
     public void formulateOracleQuestion() throws IOException {
-        // start writing in the "sat.cnf" file
-        BufferedWriter writer = new BufferedWriter
-                (new FileWriter(Constants.RETELE_SAT + Constants.CNF_EXTENSION));
-
         //  the number of variables used within the question for the oracle
         int noUsedVariables = noVariables * noRegisters;
 
-        // calculate the total number of clauses for the three clauses
-        int noClausesFistCase = noVariables;
-        int noClausesSecondCase = noRegisters * noVariablesRelations;
-        int noClausesThirdCase = noVariables * noRegisters * (noRegisters - 1) / 2;
+        // calculate the total number of clauses for the three clauses (in long, since
+        // it is only a hint for the buffers, which may exceed the range of int)
+        long noClausesFistCase = noVariables;
+        long noClausesSecondCase = (long) noRegisters * noVariablesRelations;
+        long noClausesThirdCase = (long) noVariables * noRegisters * (noRegisters - 1) / 2;
 
-        int totalClauses = noClausesFistCase + noClausesSecondCase + noClausesThirdCase;
-        writer.write(Constants.P_CNF + Constants.SPACE
-                + noUsedVariables + Constants.SPACE + totalClauses + Constants.NEW_LINE);
+        long totalClauses = noClausesFistCase + noClausesSecondCase + noClausesThirdCase;
+        // the clauses are written in the sink given by the oracle
+        ClauseSink question = newQuestion(noUsedVariables, totalClauses);
 
         // for each vertex within the graph, call the three clauses methods
-        for (int v = 1; v <= noVariables; v++) {
-            firstClauseCase(writer, v);
-            secondClauseCase(writer, v);
-            thirdClauseCase(writer, v);
+        if (ParallelClauses.isEnabled()) {
+            // the encoded third clause case uses auxiliary variables, so it is
+            // written afterwards, in order
+            boolean pairwise = atMostOneEncoding == CardinalityEncoding.PAIRWISE;
+            ParallelClauses.generate(question, 1, noVariables, (sink, v) -> {
+                try (Metrics.ClauseCount count = metrics.countClauses(sink)) {
+                    firstClauseCase(sink, v);
+                    count.mark(Metrics.FIRST_CASE);
+                    secondClauseCase(sink, v);
+                    count.mark(Metrics.SECOND_CASE);
+                    if (pairwise) {
+                        thirdClauseCase(sink, v);
+                        count.mark(Metrics.THIRD_CASE);
+                    }
+                }
+            });
+            if (!pairwise) {
+                try (Metrics.ClauseCount count = metrics.countClauses(question)) {
+                    for (int v = 1; v <= noVariables; v++) {
+                        thirdClauseCase(question, v);
+                    }
+                    count.mark(Metrics.THIRD_CASE);
+                }
+            }
+        } else {
+            try (Metrics.ClauseCount count = metrics.countClauses(question)) {
+                for (int v = 1; v <= noVariables; v++) {
+                    firstClauseCase(question, v);
+                    count.mark(Metrics.FIRST_CASE);
+                    secondClauseCase(question, v);
+                    count.mark(Metrics.SECOND_CASE);
+                    thirdClauseCase(question, v);
+                    count.mark(Metrics.THIRD_CASE);
+                }
+            }
+        }
+
+        if (symmetryBreaking) {
+            try (Metrics.ClauseCount count = metrics.countClauses(question)) {
+                pinnedCliqueClauseCase(question);
+                count.mark(Metrics.SYMMETRY_CASE);
+            }
         }
 
-        writer.close();
+        oracleQuestion = question;
+    }
+
+    /**
+     * The symmetry breaking clause case: since the registers can be relabelled, the
+     * vertices of a clique (found greedily), which need distinct registers anyway, are
+     * assigned to the registers 1, 2, ... in order
+     * @param sink the sink receiving the clauses
+     */
+    public void pinnedCliqueClauseCase(ClauseSink sink) {
+        List<Integer> clique = GraphHeuristics.greedyClique(variablesGraph);
+        for (int i = 1; i <= Math.min(clique.size(), noRegisters); i++) {
+            int v = clique.get(i - 1);
+            sink.addClause((v - 1) * noRegisters + (i - 1) + 1);
+        }
     }
 
     /**
      * The first clause case, regarding that each variable has to be assigned to a register;
      * thus, each variable will be assigned to at least one of the registers available
-     * @param writer the file writer
+     * @param sink the sink receiving the clauses
      * @param v the index of the current vertex within the graph (the current variable)
      */
-    public void firstClauseCase(BufferedWriter writer, int v) throws IOException {
+    public void firstClauseCase(ClauseSink sink, int v) {
         // the vth vertex within the graph (the vth variable) could be assigned to one of the
         // registers and thus, iterate through all the registers and write the current clause
         for (int i = 1; i <= noRegisters; i++) {
             // encode the variables as a number from 1 to noRegisters * noVariables
             int varCodification = (v - 1) * noRegisters + (i - 1) + 1;
-            writer.write(varCodification + Constants.SPACE);
+            sink.addLiteral(varCodification);
         }
         // the current clause is over
-        writer.write(Constants.ZERO + Constants.NEW_LINE);
+        sink.endClause();
 
     }
 
     /**
      * The second clause case, regarding that for each two connected edges (two variables
      * that have a relation), they cannot both be assigned to the same register
-     * @param writer the file writer
+     * @param sink the sink receiving the clauses
      * @param v the index of the current vertex within the graph (the current variable)
      */
-    public void secondClauseCase(BufferedWriter writer, int v) throws IOException {
-        // for any other variable different from the current one
-        if (v < noVariables) {
-            for (int w = v + 1; w <= noVariables; w++) {
-                // if the variables are connected
-                if (variablesAdjacencyMatrix[v][w]) {
-                    // for each register
-                    for (int i = 1; i <= noRegisters; i++) {
-                        // write the clause implying that the two variables
-                        // cannot both be assigned to the same register
-                        // encode the variables as a number from 1 to noRegisters * noVariables
-                        int firstVarCodification =
-                                -((v - 1) * noRegisters + (i - 1) + 1);
-                        int secondVarCodification =
-                                -((w - 1) * noRegisters + (i - 1) + 1);
-                        writer.write(firstVarCodification + Constants.SPACE
-                                + secondVarCodification + Constants.SPACE);
-                        // the current clause is over
-                        writer.write(Constants.ZERO + Constants.NEW_LINE);
-                    }
-                }
+    public void secondClauseCase(ClauseSink sink, int v) {
+        // for any other variable after the current one, connected to it
+        for (int w = variablesGraph.nextNeighbour(v, v + 1); w != -1;
+             w = variablesGraph.nextNeighbour(v, w + 1)) {
+            // for each register
+            for (int i = 1; i <= noRegisters; i++) {
+                // write the clause implying that the two variables
+                // cannot both be assigned to the same register
+                // encode the variables as a number from 1 to noRegisters * noVariables
+                int firstVarCodification =
+                        -((v - 1) * noRegisters + (i - 1) + 1);
+                int secondVarCodification =
+                        -((w - 1) * noRegisters + (i - 1) + 1);
+                sink.addClause(firstVarCodification,
+                        secondVarCodification);
             }
         }
     }
@@ -163,10 +604,19 @@ class Registre extends Task {
     /**
      * The third clause case, regarding that a variable cannot be assigned to two
      * different registers at the same time
-     * @param writer the file writer
+     * @param sink the sink receiving the clauses
      * @param v the index of the current vertex within the graph (the current variable)
      */
-    public void thirdClauseCase(BufferedWriter writer, int v) throws IOException {
+    public void thirdClauseCase(ClauseSink sink, int v) {
+        // with an encoding other than the pairwise one, use the cardinality encoder
+        if (atMostOneEncoding != CardinalityEncoding.PAIRWISE) {
+            int[] registers = new int[noRegisters];
+            for (int i = 1; i <= noRegisters; i++) {
+                registers[i - 1] = (v - 1) * noRegisters + (i - 1) + 1;
+            }
+            CardinalityEncoder.atMostOne(sink, registers, atMostOneEncoding);
+            return;
+        }
         // for any two different registers
         for (int i = 1; i < noRegisters; i++) {
             for (int j = i + 1; j <= noRegisters; j++) {
@@ -177,9 +627,7 @@ class Registre extends Task {
                         -((v - 1) * noRegisters + (i - 1) + 1);
                 int secondVarCodification =
                         -((v - 1) * noRegisters + (j - 1) + 1);
-                writer.write(firstVarCodification + Constants.SPACE + secondVarCodification + Constants.SPACE);
-                // the current clause is over
-                writer.write(Constants.ZERO + Constants.NEW_LINE);
+                sink.addClause(firstVarCodification, secondVarCodification);
             }
         }
     }
@@ -188,20 +636,19 @@ class Registre extends Task {
      * Decipher the answer from the Oracle
      */
     @Override
-    public void decipherOracleAnswer() throws IOException {
-        // read the answer from "sat.sol"
-        Scanner reader = new Scanner(new File(Constants.ORACLE_SOL));
+    public void decipherOracleAnswer() {
         // keep the Oracle's answer
-        oracleAnswer = reader.nextLine();
+        oracleAnswer = oracleResponse.getStatus();
 
         // if the given case is a success
         if (oracleAnswer.equals(Constants.TRUE)) {
-            // read the list of values
-            int noValues = reader.nextInt();
+            // go through the list of values
+            int[] model = oracleResponse.getModel();
+            int noValues = Math.min(model.length, noVariables * noRegisters);
             // create the hashmap of values
             oracleAnswerMap = new TreeMap<>();
             for (int i = 1; i <= noValues; i++) {
-                int value = reader.nextInt();
+                int value = model[i - 1];
                 // if the value is positive, add the representative variable
                 // and its assigned register
                 if (value > 0) {
@@ -216,20 +663,33 @@ class Registre extends Task {
     }
 
     /**
-     * Write the answer
+     * Write the answer; when minimizing, the minimum number of registers and the number
+     * of oracle calls come first, then the registers, and with a time budget a line
+     * telling whether the number is "optimal" or "not proven"
      */
     @Override
     public void writeAnswer() {
-        // if the Oracle's answer is false
-        if (oracleAnswer.equals(Constants.FALSE)) {
-            System.out.print(oracleAnswer);
+        if (minimize) {
+            output.println(noRegisters + " " + noOracleCalls);
+            for (Map.Entry<Integer, Integer> entry : oracleAnswerMap.entrySet()) {
+                output.print(entry.getValue() + " ");
+            }
+            if (budget.isLimited()) {
+                output.println();
+                output.print(optimal ? Constants.OPTIMAL : Constants.NOT_PROVEN);
+            }
+            return;
+        }
+        // if the Oracle's answer is false (or unknown, once the time is up)
+        if (!oracleAnswer.equals(Constants.TRUE)) {
+            output.print(oracleAnswer);
         } else {
             // if the answer is true, get every entry of the hashmap
             // and write the value
-            System.out.println(oracleAnswer);
+            output.println(oracleAnswer);
             if (oracleAnswerMap != null)
                 for (Map.Entry<Integer, Integer> entry : oracleAnswerMap.entrySet()) {
-                    System.out.print(entry.getValue() + " ");
+                    output.print(entry.getValue() + " ");
                 }
         }
     }
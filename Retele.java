@@ -1,10 +1,6 @@
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Scanner;
 
-import java.io.BufferedWriter;
-import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
 
 /**
@@ -12,9 +8,9 @@ import java.io.IOException;
  */
 class Retele extends Task {
     /**
-     * The social network's adjacency matrix
+     * The social network's graph
      */
-    private boolean[][] socialNetwork;
+    private Graph socialNetwork;
     /**
      * Number of vertices of the social network, which represents
      * the number of members of the network
@@ -40,8 +36,30 @@ class Retele extends Task {
      * represents the result list of good people
      */
     private List<Integer> oracleAnswerList;
+    /**
+     * Whether the clique is encoded with one variable per vertex of the graph
+     * ("retele.encoding" system property set to "vertex"), instead of the
+     * positional x_iv variables
+     */
+    private boolean vertexEncoding = Constants.VERTEX_ENCODING.equals(
+            System.getProperty(Constants.RETELE_ENCODING_PROPERTY, Constants.POSITIONAL_ENCODING));
+    /**
+     * Whether the clique is searched by the branch and bound engine ("retele.engine" system
+     * property set to "bnb", see CliqueSearch), instead of asking the oracle
+     */
+    private boolean cliqueEngine = Constants.BNB_ENGINE.equals(
+            System.getProperty(Constants.RETELE_ENGINE_PROPERTY, Constants.SAT_ENGINE));
+    /**
+     * Whether the non-edge clauses are only added once a model violates them
+     * ("retele.lazy" system property), on a persistent CDCL solver
+     */
+    private boolean lazy = Boolean.getBoolean(Constants.RETELE_LAZY_PROPERTY);
+    /**
+     * The kernel the social network was reduced to, when preprocessing
+     */
+    private Subgraph kernel;
 
-    public Retele(final boolean[][] socialNetwork, final int noNetworkMembers,
+    public Retele(final Graph socialNetwork, final int noNetworkMembers,
                   final int noFriendships) {
         this.socialNetwork = socialNetwork;
         this.noNetworkMembers = noNetworkMembers;
@@ -51,15 +69,40 @@ class Retele extends Task {
     public Retele() {}
 
     /**
-     * Method which calls, in order, all the methods used to solve the task
+     * Method which calls, in order, all the methods used to solve the task, once its data is read
      */
     @Override
-    public void solve() throws IOException, InterruptedException {
-        readProblemData();
-        formulateOracleQuestion();
-        askOracle();
-        decipherOracleAnswer();
-        writeAnswer();
+    public void solveProblem() throws IOException, InterruptedException {
+        if (trySettleByHeuristics()) {
+            metrics.time(Metrics.WRITE, this::writeAnswer);
+            return;
+        }
+        CanonicalGraph canonicalNetwork = cache == null ? null
+                : metrics.measure(Metrics.CANONICAL, () -> new CanonicalGraph(socialNetwork));
+        if (canonicalNetwork != null && metrics.measure(Metrics.CACHE, () -> readCachedAnswer(canonicalNetwork))) {
+            metrics.time(Metrics.WRITE, this::writeAnswer);
+            return;
+        }
+        if (preprocessing && !metrics.measure(Metrics.PREPROCESS, this::reduceToKernel)) {
+            // the kernel is too small, so there is no clique of dimension k
+            oracleAnswer = Constants.FALSE;
+        } else if (cliqueEngine) {
+            metrics.time(Metrics.CLIQUE, this::searchClique);
+        } else if (lazy) {
+            solveLazily();
+        } else {
+            if (Boolean.getBoolean(Constants.COMPARE_ENCODINGS_PROPERTY)) {
+                compareEncodings();
+            }
+            metrics.time(Metrics.FORMULATE, this::formulateOracleQuestion);
+            askOracle();
+            metrics.time(Metrics.DECIPHER, this::decipherOracleAnswer);
+        }
+        // an unknown answer (the question was given up) is not kept
+        if (canonicalNetwork != null && !oracleAnswer.equals(Constants.UNKNOWN)) {
+            metrics.time(Metrics.CACHE, () -> writeCachedAnswer(canonicalNetwork));
+        }
+        metrics.time(Metrics.WRITE, this::writeAnswer);
     }
 
     /**
@@ -72,27 +115,274 @@ class Retele extends Task {
         noNetworkMembers = n;
         noFriendships = m;
         groupDimension = k;
-        socialNetwork = new boolean[n + 1][n + 1];
     }
 
     /**
-     * Read the data from stdin
+     * Read the data from the input (stdin, unless the task is part of a batch)
      */
     @Override
-    public void readProblemData() {
-        Scanner reader = new Scanner(System.in);
+    public void readProblemData() throws IOException {
+        FastReader reader = getInput();
         int n = reader.nextInt();
         int m = reader.nextInt();
         int k = reader.nextInt();
         initialiseData(n, m, k);
 
         // for each edge, consider that the graph is undirected
+        int[] from = new int[noFriendships];
+        int[] to = new int[noFriendships];
         for (int i = 0; i < noFriendships; i++) {
-            int u = reader.nextInt();
-            int v = reader.nextInt();
-            socialNetwork[u][v] = true;
-            socialNetwork[v][u] = true;
+            from[i] = reader.nextInt();
+            to[i] = reader.nextInt();
+        }
+        socialNetwork = Graph.fromEdges(n, m, from, to);
+    }
+
+    /**
+     * A clique of dimension k, found greedily or else by local search until the deadline,
+     * settles the answer as True; a greedy coloring with less than k colors settles it
+     * as False, since the vertices of a clique need distinct colors
+     */
+    @Override
+    public boolean settleByHeuristics(long deadline) {
+        if (groupDimension < 0) {
+            return false;
+        }
+        List<Integer> clique = GraphHeuristics.greedyClique(socialNetwork, deadline);
+        if (clique == null) {
+            return false;
+        }
+        if (clique.size() < groupDimension) {
+            int noColors = GraphHeuristics.greedyColoringSize(socialNetwork, deadline);
+            if (noColors >= 0 && noColors < groupDimension) {
+                oracleAnswer = Constants.FALSE;
+                return true;
+            }
+            clique = GraphHeuristics.localSearchClique(socialNetwork, clique, groupDimension, deadline);
+            if (clique.size() < groupDimension) {
+                return false;
+            }
+        }
+        oracleAnswer = Constants.TRUE;
+        oracleAnswerList = new ArrayList<>(clique.subList(0, groupDimension));
+        return true;
+    }
+
+    /**
+     * Look for the answer within the solution cache (the status, then the clique's
+     * vertices, in canonical labels)
+     * @param canonicalNetwork the canonical form of the social network
+     * @return true if the answer was cached
+     */
+    private boolean readCachedAnswer(CanonicalGraph canonicalNetwork) {
+        int[] values = cache.get(SolutionCache.CLIQUE, canonicalNetwork, groupDimension);
+        if (values == null) {
+            return false;
+        }
+        oracleAnswer = values[0] == 1 ? Constants.TRUE : Constants.FALSE;
+        oracleAnswerList = new ArrayList<>();
+        for (int i = 1; i < values.length; i++) {
+            oracleAnswerList.add(canonicalNetwork.getVertex(values[i]));
+        }
+        return true;
+    }
+
+    /**
+     * Keep the answer within the solution cache
+     * @param canonicalNetwork the canonical form of the social network
+     */
+    private void writeCachedAnswer(CanonicalGraph canonicalNetwork) {
+        boolean found = oracleAnswer.equals(Constants.TRUE);
+        int[] values = new int[found ? oracleAnswerList.size() + 1 : 1];
+        values[0] = found ? 1 : 0;
+        for (int i = 1; i < values.length; i++) {
+            values[i] = canonicalNetwork.getCanonicalLabel(oracleAnswerList.get(i - 1));
+        }
+        cache.put(SolutionCache.CLIQUE, canonicalNetwork, groupDimension, values);
+    }
+
+    /**
+     * Reduce the social network to its kernel: a vertex of a clique of dimension k has
+     * at least k - 1 neighbours within the clique, so the vertices with a lower degree are
+     * removed, repeatedly (what remains is the (k - 1)-core of the graph)
+     * @return false if the kernel has less than k vertices (thus no clique of dimension k)
+     */
+    public boolean reduceToKernel() {
+        kernel = Subgraph.induced(socialNetwork,
+                GraphReductions.peel(socialNetwork, groupDimension - 1, null));
+        if (Boolean.getBoolean(Constants.STATS_PROPERTY)) {
+            System.err.println("Retele: kernel of " + kernel.getNoVertices() + " / "
+                    + noNetworkMembers + " vertices");
+        }
+        socialNetwork = kernel.getGraph();
+        noNetworkMembers = kernel.getNoVertices();
+        noFriendships = kernel.getNoEdges();
+        return noNetworkMembers >= groupDimension;
+    }
+
+    /**
+     * Search a clique of dimension k with the branch and bound engine, within the time
+     * budget of a question (the answer is unknown if the search was given up)
+     */
+    public void searchClique() throws IOException, InterruptedException {
+        CliqueSearch search = new CliqueSearch(socialNetwork);
+        Boolean found = budget.limit(() -> search.search(groupDimension, groupDimension));
+        metrics.add("clique.nodes", search.getNoNodes());
+        if (found == null) {
+            metrics.add("oracle.timeouts", 1);
+            oracleAnswer = Constants.UNKNOWN;
+        } else if (!found) {
+            oracleAnswer = Constants.FALSE;
+        } else {
+            oracleAnswer = Constants.TRUE;
+            oracleAnswerList = new ArrayList<>(search.getClique().subList(0, Math.max(groupDimension, 0)));
+            // lift the vertices from the kernel to the original social network
+            if (kernel != null) {
+                oracleAnswerList.replaceAll(kernel::getOriginalVertex);
+            }
+        }
+    }
+
+    /**
+     * Solve the question with the non-edge clauses generated lazily, from counterexamples
+     * (CEGAR): a single, persistent CDCL solver starts with the first and third clause cases
+     * (the cardinality constraint of the vertex encoding); each model is checked against the
+     * social network, and the clauses of the non-edges between its vertices are added before
+     * solving again, until a model is a clique or the clauses are unsatisfiable
+     */
+    public void solveLazily() throws IOException, InterruptedException {
+        warnIfOracleIgnored(Constants.RETELE_LAZY_PROPERTY);
+        CdclSolver solver = new CdclSolver();
+        metrics.time(Metrics.FORMULATE, () -> formulateLazyQuestion(solver));
+        int noRefinements = 0;
+        while (true) {
+            Boolean satisfiable = metrics.measure(Metrics.ORACLE, () -> budget.limit(() -> solver.solve()));
+            if (satisfiable == null) {
+                metrics.add("oracle.timeouts", 1);
+                oracleResponse = OracleAnswer.unknown();
+                break;
+            }
+            if (!satisfiable) {
+                oracleResponse = OracleAnswer.unsatisfiable();
+                break;
+            }
+            int[] model = solver.getModel();
+            if (metrics.measure(Metrics.FORMULATE, () -> addViolatedNonEdges(solver, model)) == 0) {
+                oracleResponse = OracleAnswer.satisfiable(model);
+                break;
+            }
+            noRefinements++;
+        }
+
+        metrics.add("lazy.refinements", noRefinements);
+        metrics.add("question.variables", solver.getNoVariables());
+        metrics.add("question.clauses", solver.getNoClauses());
+        metrics.add("solver.conflicts", solver.getNoConflicts());
+        metrics.add("solver.decisions", solver.getNoDecisions());
+        metrics.add("solver.propagations", solver.getNoPropagations());
+        if (Boolean.getBoolean(Constants.STATS_PROPERTY)) {
+            System.err.println("Retele: " + noRefinements + " refinements, "
+                    + solver.getNoClauses() + " clauses");
+        }
+        metrics.time(Metrics.DECIPHER, this::decipherOracleAnswer);
+    }
+
+    /**
+     * Write the clauses of the lazy question, without any non-edge clause: the first and
+     * third clause cases (and the symmetry breaking ones, if selected) of the positional
+     * encoding, or the cardinality constraint of the vertex encoding
+     * @param solver the solver receiving the clauses
+     */
+    private void formulateLazyQuestion(CdclSolver solver) {
+        solver.ensureVariables(getNoCliqueVariables());
+        try (Metrics.ClauseCount count = metrics.countClauses(solver)) {
+            if (vertexEncoding) {
+                int[] vertices = new int[noNetworkMembers];
+                for (int v = 1; v <= noNetworkMembers; v++) {
+                    vertices[v - 1] = v;
+                }
+                CardinalityEncoder.atLeastK(solver, vertices, groupDimension, atMostKEncoding);
+                count.mark(Metrics.CARDINALITY_CASE);
+                return;
+            }
+            for (int i = 1; i <= groupDimension; i++) {
+                firstClauseCase(solver, i);
+            }
+            count.mark(Metrics.FIRST_CASE);
+            if (atMostOneEncoding == CardinalityEncoding.PAIRWISE) {
+                for (int i = 1; i <= groupDimension; i++) {
+                    thirdClauseCase(solver, i);
+                }
+            } else {
+                for (int v = 1; v <= noNetworkMembers; v++) {
+                    thirdClauseCaseEncoded(solver, v);
+                }
+            }
+            count.mark(Metrics.THIRD_CASE);
+            if (symmetryBreaking) {
+                for (int i = 1; i < groupDimension; i++) {
+                    orderedPositionsClauseCase(solver, i);
+                }
+                count.mark(Metrics.SYMMETRY_CASE);
+            }
+        }
+    }
+
+    /**
+     * Check a model against the social network, and add the clauses of the non-edges
+     * between its vertices (the vertex on each position, or all the chosen vertices of the
+     * vertex encoding); with the positional encoding, a non-edge gets its clauses for all
+     * the pairs of positions, so that no other model places its vertices either
+     * @param solver the solver receiving the clauses
+     * @param model the model
+     * @return the number of non-edges found within the model, 0 if it is a clique
+     */
+    private int addViolatedNonEdges(CdclSolver solver, int[] model) {
+        List<Integer> chosen = new ArrayList<>();
+        if (vertexEncoding) {
+            for (int v = 1; v <= noNetworkMembers; v++) {
+                if (model[v - 1] > 0) {
+                    chosen.add(v);
+                }
+            }
+        } else {
+            // the vertex deciphered for each position: the first one chosen
+            for (int i = 1; i <= groupDimension; i++) {
+                int v = 1;
+                while (model[(i - 1) * noNetworkMembers + (v - 1)] < 0) {
+                    v++;
+                }
+                chosen.add(v);
+            }
+        }
+
+        int noViolated = 0;
+        try (Metrics.ClauseCount count = metrics.countClauses(solver)) {
+            for (int a = 0; a < chosen.size(); a++) {
+                for (int b = a + 1; b < chosen.size(); b++) {
+                    int v = chosen.get(a);
+                    int w = chosen.get(b);
+                    if (v == w || socialNetwork.hasEdge(v, w)) {
+                        continue;
+                    }
+                    noViolated++;
+                    if (vertexEncoding) {
+                        solver.addClause(-v, -w);
+                        continue;
+                    }
+                    for (int i = 1; i <= groupDimension; i++) {
+                        for (int j = 1; j <= groupDimension; j++) {
+                            if (i != j) {
+                                solver.addClause(-((i - 1) * noNetworkMembers + (v - 1) + 1),
+                                        -((j - 1) * noNetworkMembers + (w - 1) + 1));
+                            }
+                        }
+                    }
+                }
+            }
+            count.mark(vertexEncoding ? Metrics.NON_EDGE_CASE : Metrics.SECOND_CASE);
         }
+        return noViolated;
     }
 
     /**
@@ -100,84 +390,183 @@ class Retele extends Task {
      */
     @Override
     public void formulateOracleQuestion() throws IOException {
-        // start writing in the "sat.cnf" file
-        BufferedWriter writer = new BufferedWriter
-                (new FileWriter(Constants.RETELE_SAT + Constants.CNF_EXTENSION));
+        if (vertexEncoding) {
+            formulateVertexQuestion();
+            return;
+        }
 
         //  the number of variables used within the question for the oracle
         int noUsedVariables = noNetworkMembers * groupDimension;
 
-        // calculate the total number of clauses for the three clauses
-        int noClausesFistCase = groupDimension;
-        int noClausesSecondCase = groupDimension * (groupDimension - 1) *
-                ((noNetworkMembers * (noNetworkMembers - 1) / 2) - noFriendships);
-        int noClausesThirdCase = (groupDimension * (groupDimension - 1) / 2)
-                * noNetworkMembers;
+        // calculate the total number of clauses for the three clauses (in long, since
+        // it is only a hint for the buffers, which may exceed the range of int)
+        long noNonEdges = (long) noNetworkMembers * (noNetworkMembers - 1) / 2 - noFriendships;
+        long noClausesFistCase = groupDimension;
+        long noClausesSecondCase = (long) groupDimension * (groupDimension - 1) * noNonEdges;
+        long noClausesThirdCase = countAtMostOneClauses() * noNetworkMembers;
 
-        int totalClauses = noClausesFistCase + noClausesSecondCase + noClausesThirdCase;
-        writer.write(Constants.P_CNF + Constants.SPACE
-                + noUsedVariables + Constants.SPACE + totalClauses + Constants.NEW_LINE);
+        long totalClauses = noClausesFistCase + noClausesSecondCase + noClausesThirdCase;
+        if (symmetryBreaking) {
+            // for each pair of consecutive positions, 3 * n - 1 clauses (see orderedPositionsClauseCase)
+            totalClauses += (3L * noNetworkMembers - 1) * Math.max(0, groupDimension - 1);
+        }
+        // the clauses are written in the sink given by the oracle
+        ClauseSink question = newQuestion(noUsedVariables, totalClauses);
 
         // for each vertex within the clique, call the three clauses methods
-        for (int i = 1; i <= groupDimension; i++) {
-            firstClauseCase(writer, i);
-            secondClauseCase(writer, i);
-            thirdClauseCase(writer, i);
+        if (ParallelClauses.isEnabled()) {
+            ParallelClauses.generate(question, 1, groupDimension, this::positionClauses);
+        } else {
+            for (int i = 1; i <= groupDimension; i++) {
+                positionClauses(question, i);
+            }
         }
+        // with the other encodings, the third clause case is written for each vertex of the
+        // graph, as an at-most-one constraint over its positions within the clique
+        try (Metrics.ClauseCount count = metrics.countClauses(question)) {
+            if (atMostOneEncoding != CardinalityEncoding.PAIRWISE) {
+                for (int v = 1; v <= noNetworkMembers; v++) {
+                    thirdClauseCaseEncoded(question, v);
+                }
+                count.mark(Metrics.THIRD_CASE);
+            }
+            if (symmetryBreaking) {
+                for (int i = 1; i < groupDimension; i++) {
+                    orderedPositionsClauseCase(question, i);
+                }
+                count.mark(Metrics.SYMMETRY_CASE);
+            }
+        }
+
+        oracleQuestion = question;
+    }
 
-        writer.close();
+    /**
+     * @return the number of clauses of the third clause case for a single vertex of the
+     * graph, as written by the selected at-most-one encoding over the k positions (the
+     * same for each vertex)
+     */
+    private long countAtMostOneClauses() {
+        int[] positions = new int[groupDimension];
+        for (int i = 0; i < groupDimension; i++) {
+            positions[i] = i + 1;
+        }
+        Formula clauses = new Formula(groupDimension);
+        CardinalityEncoder.atMostOne(clauses, positions, atMostOneEncoding);
+        return clauses.getNoClauses();
+    }
+
+    /**
+     * The clauses of the ith vertex within the clique (the third clause case only for
+     * the pairwise encoding, since the others need auxiliary variables)
+     * @param sink the sink receiving the clauses
+     * @param i the index of the current vertex within the clique
+     */
+    public void positionClauses(ClauseSink sink, int i) {
+        try (Metrics.ClauseCount count = metrics.countClauses(sink)) {
+            firstClauseCase(sink, i);
+            count.mark(Metrics.FIRST_CASE);
+            secondClauseCase(sink, i);
+            count.mark(Metrics.SECOND_CASE);
+            if (atMostOneEncoding == CardinalityEncoding.PAIRWISE) {
+                thirdClauseCase(sink, i);
+                count.mark(Metrics.THIRD_CASE);
+            }
+        }
+    }
+
+    /**
+     * Formulate the question for the Oracle, with one variable x_v for each vertex v of
+     * the graph ("v is within the clique"): a single clause for each non-edge, and a
+     * cardinality constraint of at least k chosen vertices; the variables of the vertices
+     * come first, so the answer is deciphered in the same way
+     */
+    public void formulateVertexQuestion() throws IOException {
+        // the clauses are written in the sink given by the oracle
+        ClauseSink question = newQuestion(noNetworkMembers,
+                (long) noNetworkMembers * (noNetworkMembers - 1) / 2 - noFriendships);
+
+        try (Metrics.ClauseCount count = metrics.countClauses(question)) {
+            if (ParallelClauses.isEnabled()) {
+                ParallelClauses.generate(question, 1, noNetworkMembers, this::nonEdgeClauseCase);
+            } else {
+                for (int v = 1; v <= noNetworkMembers; v++) {
+                    nonEdgeClauseCase(question, v);
+                }
+            }
+            count.mark(Metrics.NON_EDGE_CASE);
+
+            // at least k vertices are within the clique
+            int[] vertices = new int[noNetworkMembers];
+            for (int v = 1; v <= noNetworkMembers; v++) {
+                vertices[v - 1] = v;
+            }
+            CardinalityEncoder.atLeastK(question, vertices, groupDimension, atMostKEncoding);
+            count.mark(Metrics.CARDINALITY_CASE);
+        }
+
+        oracleQuestion = question;
+    }
+
+    /**
+     * The non-edge clause case of the vertex encoding: two vertices which are not
+     * connected cannot both be within the clique
+     * @param sink the sink receiving the clauses
+     * @param v the index of the current vertex within the graph
+     */
+    public void nonEdgeClauseCase(ClauseSink sink, int v) {
+        for (int w = socialNetwork.nextNonNeighbour(v, v + 1); w != -1;
+             w = socialNetwork.nextNonNeighbour(v, w + 1)) {
+            sink.addClause(-v, -w);
+        }
     }
 
     /**
      * The first clause case, regarding the existence of a clique vertex within the
      * graph, which implies that each vertex of the clique has to be one of the vertices
      * of the graph
-     * @param writer the file writer
+     * @param sink the sink receiving the clauses
      * @param i the index of the current vertex within the clique
      */
-    public void firstClauseCase(BufferedWriter writer, int i) throws IOException {
+    public void firstClauseCase(ClauseSink sink, int i) {
         // the ith vertex within the clique could be one of the vertices within the graph
         // thus, iterate through all the vertices of the graph and write the current clause
         for (int v = 1; v <= noNetworkMembers; v++) {
             // encode the variables as a number from 1 to noNetworkMembers * groupDimension
             int varCodification = (i - 1) * noNetworkMembers + (v - 1) + 1;
-            writer.write(varCodification + Constants.SPACE);
+            sink.addLiteral(varCodification);
         }
         // the current clause is over
-        writer.write(Constants.ZERO + Constants.NEW_LINE);
+        sink.endClause();
 
     }
 
     /**
      * The second clause case, regarding that for each non-edge, one of the vertices
      * is not within the clique (since in the clique, all vertices are connected)
-     * @param writer the file writer
+     * @param sink the sink receiving the clauses
      * @param i the index of the current vertex within the clique
      */
-    public void secondClauseCase(BufferedWriter writer, int i) throws IOException {
+    public void secondClauseCase(ClauseSink sink, int i) {
         // for any other vertex within the clique different from the current one
         for (int j = 1; j <= groupDimension; j++) {
             if (i != j) {
                 // for each two different vertices within the graph
                 for (int v = 1; v < noNetworkMembers; v++) {
-                    for (int w = v + 1; w <= noNetworkMembers; w++) {
-                        // if there is no edge between the vertices
-                        if (!socialNetwork[v][w]) {
-                            // write the clause implying that the vertices
-                            // cannot both be part of the clique at the same time
-                            // encode the variables as a number from 1 to
-                            // noNetworkMembers * groupDimension
-                            int firstVarCodification =
-                                    -((i - 1) * noNetworkMembers + (v - 1) + 1);
-                            int secondVarCodification =
-                                    -((j - 1) * noNetworkMembers + (w - 1) + 1);
-                            writer.write(firstVarCodification + Constants.SPACE
-                                    + secondVarCodification + Constants.SPACE);
-                            // the current clause is over
-                            writer.write(Constants.ZERO + Constants.NEW_LINE);
-                        }
+                    // for each vertex after v with no edge between them
+                    for (int w = socialNetwork.nextNonNeighbour(v, v + 1); w != -1;
+                         w = socialNetwork.nextNonNeighbour(v, w + 1)) {
+                        // write the clause implying that the vertices
+                        // cannot both be part of the clique at the same time
+                        // encode the variables as a number from 1 to
+                        // noNetworkMembers * groupDimension
+                        int firstVarCodification =
+                                -((i - 1) * noNetworkMembers + (v - 1) + 1);
+                        int secondVarCodification =
+                                -((j - 1) * noNetworkMembers + (w - 1) + 1);
+                        sink.addClause(firstVarCodification,
+                                secondVarCodification);
                     }
-
                 }
             }
         }
@@ -186,10 +575,10 @@ class Retele extends Task {
     /**
      * The third clause case, regarding that a node within the graph cannot be
      * on two different positions within the clique, at the same time
-     * @param writer the file writer
+     * @param sink the sink receiving the clauses
      * @param i the index of the current vertex within the clique
      */
-    public void thirdClauseCase(BufferedWriter writer, int i) throws IOException {
+    public void thirdClauseCase(ClauseSink sink, int i) {
         if (i < groupDimension) {
             // for any other vertex within the clique different from the current one
             for (int j = i + 1; j <= groupDimension; j++) {
@@ -203,31 +592,67 @@ class Retele extends Task {
                             -((i - 1) * noNetworkMembers + (v - 1) + 1);
                     int secondVarCodification =
                             -((j - 1) * noNetworkMembers + (v - 1) + 1);
-                    writer.write(firstVarCodification + Constants.SPACE + secondVarCodification + Constants.SPACE);
-                    // the current clause is over
-                    writer.write(Constants.ZERO + Constants.NEW_LINE);
+                    sink.addClause(firstVarCodification, secondVarCodification);
                 }
             }
         }
     }
 
+    /**
+     * The third clause case, written with the selected at-most-one encoding (with auxiliary
+     * variables, numbered after the n * k variables of the clique)
+     * @param sink the sink receiving the clauses
+     * @param v the index of the current vertex within the graph
+     */
+    public void thirdClauseCaseEncoded(ClauseSink sink, int v) {
+        int[] positions = new int[groupDimension];
+        for (int i = 1; i <= groupDimension; i++) {
+            positions[i - 1] = (i - 1) * noNetworkMembers + (v - 1) + 1;
+        }
+        CardinalityEncoder.atMostOne(sink, positions, atMostOneEncoding);
+    }
+
+    /**
+     * The symmetry breaking clause case: since any permutation of the clique's positions
+     * gives the same clique, the vertex on position i + 1 has to be greater than the one
+     * on position i; with the auxiliary variables y_w ("position i + 1 holds a vertex
+     * <= w"), this takes 3 * n clauses instead of n^2 / 2 binary ones
+     * @param sink the sink receiving the clauses
+     * @param i the index of the current vertex within the clique
+     */
+    public void orderedPositionsClauseCase(ClauseSink sink, int i) {
+        int previousPrefix = 0;
+        for (int v = 1; v <= noNetworkMembers; v++) {
+            int current = (i - 1) * noNetworkMembers + (v - 1) + 1;
+            int next = i * noNetworkMembers + (v - 1) + 1;
+            int prefix = sink.newVariable();
+            // x_(i+1)v -> y_v and y_(v-1) -> y_v
+            sink.addClause(-next, prefix);
+            if (previousPrefix != 0) {
+                sink.addClause(-previousPrefix, prefix);
+            }
+            // if v is on position i, no vertex <= v is on position i + 1
+            sink.addClause(-current, -prefix);
+            previousPrefix = prefix;
+        }
+    }
+
     /**
      * Decipher the answer from the Oracle
      */
     @Override
-    public void decipherOracleAnswer() throws IOException {
-        // read the answer from "sat.sol"
-        Scanner reader = new Scanner(new File(Constants.ORACLE_SOL));
+    public void decipherOracleAnswer() {
         // keep the Oracle's answer
-        oracleAnswer = reader.nextLine();
+        oracleAnswer = oracleResponse.getStatus();
 
         // if the given case is a success
         if (oracleAnswer.equals(Constants.TRUE)) {
-            // read the list of values
-            int noValues = reader.nextInt();
+            // go through the list of values
+            int[] model = oracleResponse.getModel();
+            int noValues = Math.min(model.length, getNoCliqueVariables());
             oracleAnswerList = new ArrayList<>();
             for (int i = 0; i < noValues; i++) {
-                int value = reader.nextInt();
+                int value = model[i];
                 // if the value is positive
                 if (value > 0) {
                     // decode the answer by reversing the encoding process
@@ -237,8 +662,17 @@ class Retele extends Task {
                     } else {
                         oracleAnswerList.add(noNetworkMembers);
                     }
+                    // the positional encoding allows other (not necessarily connected)
+                    // vertices on the same position, keep the first one of each position
+                    if (!vertexEncoding) {
+                        i = (value - 1) / noNetworkMembers * noNetworkMembers + noNetworkMembers - 1;
+                    }
                 }
             }
+            // lift the vertices from the kernel to the original social network
+            if (kernel != null) {
+                oracleAnswerList.replaceAll(kernel::getOriginalVertex);
+            }
         }
     }
 
@@ -247,15 +681,15 @@ class Retele extends Task {
      */
     @Override
     public void writeAnswer() {
-        // if the Oracle's answer is false
-        if (oracleAnswer.equals(Constants.FALSE)) {
-            System.out.print(oracleAnswer);
+        // if the Oracle's answer is false (or unknown, once the time is up)
+        if (!oracleAnswer.equals(Constants.TRUE)) {
+            output.print(oracleAnswer);
         } else {
             // is the answer is true, write the list of result vertices
-            System.out.println(oracleAnswer);
+            output.println(oracleAnswer);
             for (int i = 0; i < groupDimension; i++) {
-                System.out.print(oracleAnswerList.get(i));
-                System.out.print(" ");
+                output.print(oracleAnswerList.get(i));
+                output.print(" ");
             }
         }
     }
@@ -264,10 +698,22 @@ class Retele extends Task {
         this.groupDimension = groupDimension;
     }
 
+    /**
+     * @return the number of variables which encode the clique's vertices (n * k for
+     * the positional encoding, n for the vertex encoding)
+     */
+    public int getNoCliqueVariables() {
+        return vertexEncoding ? noNetworkMembers : noNetworkMembers * groupDimension;
+    }
+
     public String getOracleAnswer() {
         return oracleAnswer;
     }
 
+    public List<Integer> getOracleAnswerList() {
+        return oracleAnswerList;
+    }
+
     /**
      * The main method for running the program
      */
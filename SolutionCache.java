@@ -0,0 +1,161 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Persistent cache of the decoded answers, one file for each (question, graph, k) within
+ * the directory given by the "cache.dir" system property; the answers are kept in the
+ * canonical labels of the graph, so that they also serve isomorphic copies of it; the
+ * least recently used files are evicted above "cache.size" entries
+ */
+public class SolutionCache {
+    /**
+     * The questions whose answers are kept: the clique of dimension k (Retele, and each
+     * value of k asked by Reclame), the minimum vertex cover and the k-coloring
+     */
+    public static final String CLIQUE = "clique";
+    public static final String COVER = "cover";
+    public static final String COLORING = "coloring";
+
+    private static final String EXTENSION = ".ans";
+    private static final int DEFAULT_SIZE = 1024;
+
+    private final Path directory;
+    private final int maxEntries;
+
+    public SolutionCache(final Path directory, final int maxEntries) {
+        this.directory = directory;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * @return the cache in the directory given by the "cache.dir" system property,
+     * or null if the property is not set
+     */
+    public static SolutionCache fromProperties() {
+        String directory = System.getProperty(Constants.CACHE_DIR_PROPERTY);
+        if (directory == null) {
+            return null;
+        }
+        return new SolutionCache(Path.of(directory), Integer.getInteger(Constants.CACHE_SIZE_PROPERTY, DEFAULT_SIZE));
+    }
+
+    /**
+     * Look for a cached answer, marking it as recently used
+     * @param question the question (CLIQUE, COVER or COLORING)
+     * @param graph the canonical form of the graph
+     * @param k the dimension asked (0 if none)
+     * @return the values of the answer, or null if it is not cached
+     */
+    public int[] get(String question, CanonicalGraph graph, int k) {
+        Path file = fileOf(question, graph, k);
+        try {
+            if (!Files.exists(file)) {
+                return null;
+            }
+            FastReader reader = FastReader.open(file);
+            int[] values = new int[reader.nextInt()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = reader.nextInt();
+            }
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            return values;
+        } catch (IOException e) {
+            // a file evicted or written concurrently is a miss
+            return null;
+        }
+    }
+
+    /**
+     * Keep an answer, then evict the least recently used ones above the size of the cache;
+     * the cache is best-effort, so an answer which cannot be written (a full disk, a read-only
+     * directory) is reported on stderr and not kept, without failing the solve
+     * @param question the question (CLIQUE, COVER or COLORING)
+     * @param graph the canonical form of the graph
+     * @param k the dimension asked (0 if none)
+     * @param values the values of the answer, in canonical labels
+     */
+    public void put(String question, CanonicalGraph graph, int k, int[] values) {
+        StringBuilder text = new StringBuilder();
+        text.append(values.length).append('\n');
+        for (int value : values) {
+            text.append(value).append(' ');
+        }
+        text.append('\n');
+        Path temporary = null;
+        try {
+            Files.createDirectories(directory);
+            // written aside, then moved, so that a concurrent run never reads half a file
+            temporary = Files.createTempFile(directory, question, ".tmp");
+            Files.writeString(temporary, text, StandardCharsets.US_ASCII);
+            Files.move(temporary, fileOf(question, graph, k), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            temporary = null;
+            evict();
+        } catch (IOException | DirectoryIteratorException e) {
+            System.err.println("Cache: the answer could not be kept in " + directory + " (" + e + ")");
+        } finally {
+            deleteQuietly(temporary);
+        }
+    }
+
+    /**
+     * Delete a half-written file, if any, ignoring the failures (it is only litter)
+     * @param file the file, or null
+     */
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ignored) {
+            // left behind, but never read: only the files with the answers' extension are
+        }
+    }
+
+    /**
+     * Delete the least recently used files above the size of the cache
+     */
+    private void evict() throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory, "*" + EXTENSION)) {
+            for (Path file : entries) {
+                files.add(file);
+            }
+        }
+        if (files.size() <= maxEntries) {
+            return;
+        }
+        List<FileTime> times = new ArrayList<>();
+        for (Path file : files) {
+            try {
+                times.add(Files.getLastModifiedTime(file));
+            } catch (NoSuchFileException e) {
+                // already evicted by a concurrent run
+                times.add(FileTime.fromMillis(0));
+            }
+        }
+        Integer[] order = new Integer[files.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (first, second) -> times.get(first).compareTo(times.get(second)));
+        for (int i = 0; i < files.size() - maxEntries; i++) {
+            Files.deleteIfExists(files.get(order[i]));
+        }
+    }
+
+    private Path fileOf(String question, CanonicalGraph graph, int k) {
+        return directory.resolve(question + "-" + k + "-" + graph.getHash() + EXTENSION);
+    }
+}
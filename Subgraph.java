@@ -0,0 +1,104 @@
+import java.util.List;
+
+/**
+ * Class which keeps an induced subgraph, with its vertices relabelled from 1,
+ * along with the labels of its vertices within the original graph
+ */
+public class Subgraph {
+    /**
+     * The subgraph, with the vertices numbered from 1 to its number of vertices
+     */
+    private final Graph graph;
+    /**
+     * For each vertex of the subgraph, its label within the original graph
+     */
+    private final int[] originalVertices;
+    /**
+     * Number of edges of the subgraph
+     */
+    private final int noEdges;
+
+    private Subgraph(final Graph graph, final int[] originalVertices, final int noEdges) {
+        this.graph = graph;
+        this.originalVertices = originalVertices;
+        this.noEdges = noEdges;
+    }
+
+    /**
+     * Build the subgraph induced by some of the vertices of a graph
+     * @param graph the original graph
+     * @param vertices the vertices kept, in increasing order
+     * @return the subgraph, whose vertex i is the ith kept vertex
+     */
+    public static Subgraph induced(Graph graph, List<Integer> vertices) {
+        int n = vertices.size();
+        int[] originalVertices = new int[n + 1];
+        int[] newLabels = new int[graph.getNoVertices() + 1];
+        for (int i = 1; i <= n; i++) {
+            originalVertices[i] = vertices.get(i - 1);
+            newLabels[originalVertices[i]] = i;
+        }
+
+        // count the edges between kept vertices, then list them
+        int m = 0;
+        for (int i = 1; i <= n; i++) {
+            int v = originalVertices[i];
+            for (int w = graph.nextNeighbour(v, v + 1); w != -1; w = graph.nextNeighbour(v, w + 1)) {
+                if (newLabels[w] != 0) {
+                    m++;
+                }
+            }
+        }
+        int[] from = new int[m];
+        int[] to = new int[m];
+        int e = 0;
+        for (int i = 1; i <= n; i++) {
+            int v = originalVertices[i];
+            for (int w = graph.nextNeighbour(v, v + 1); w != -1; w = graph.nextNeighbour(v, w + 1)) {
+                if (newLabels[w] != 0) {
+                    from[e] = i;
+                    to[e] = newLabels[w];
+                    e++;
+                }
+            }
+        }
+        return new Subgraph(Graph.fromEdges(n, m, from, to), originalVertices, m);
+    }
+
+    /**
+     * Build a subgraph from its edges, given with the labels of the subgraph
+     * @param vertices the label of each vertex of the subgraph within the original graph
+     * @param m the number of edges
+     * @param from the first end of each edge (from 1 to the number of vertices)
+     * @param to the second end of each edge
+     * @return the subgraph, whose vertex i is the ith vertex given
+     */
+    public static Subgraph fromEdges(List<Integer> vertices, int m, int[] from, int[] to) {
+        int n = vertices.size();
+        int[] originalVertices = new int[n + 1];
+        for (int i = 1; i <= n; i++) {
+            originalVertices[i] = vertices.get(i - 1);
+        }
+        return new Subgraph(Graph.fromEdges(n, m, from, to), originalVertices, m);
+    }
+
+    public Graph getGraph() {
+        return graph;
+    }
+
+    public int getNoVertices() {
+        return originalVertices.length - 1;
+    }
+
+    public int getNoEdges() {
+        return noEdges;
+    }
+
+    /**
+     * @param v a vertex of the subgraph
+     * @return its label within the original graph
+     */
+    public int getOriginalVertex(int v) {
+        return originalVertices[v];
+    }
+}
@@ -1,13 +1,121 @@
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Abstract class which contains the methods to be implemented in solving
  * the tasks
  */
 public abstract class Task {
-    public abstract void solve() throws IOException, InterruptedException;
+    /**
+     * The time given to the heuristics by default, in milliseconds
+     */
+    private static final long DEFAULT_HEURISTICS_MILLIS = 100;
+    /**
+     * The warnings already written on stderr (e.g. a mode ignoring the selected oracle),
+     * so that a batch warns once
+     */
+    private static final Set<String> WARNINGS = ConcurrentHashMap.newKeySet();
+
+    /**
+     * The oracle which answers the questions, selected through the
+     * "oracle" system property ("cdcl" by default, or "python")
+     */
+    protected Oracle oracle = Oracle.fromProperties();
+    /**
+     * The question formulated for the oracle, written in the sink given by the oracle
+     */
+    protected ClauseSink oracleQuestion;
+    /**
+     * The answer given by the oracle to the last question
+     */
+    protected OracleAnswer oracleResponse;
+    /**
+     * The encoding of the at-most-one constraints ("encoding.amo" system property)
+     */
+    protected CardinalityEncoding atMostOneEncoding = CardinalityEncoding.atMostOneFromProperties();
+    /**
+     * The encoding of the at-most-k / at-least-k constraints ("encoding.amk" system property)
+     */
+    protected CardinalityEncoding atMostKEncoding = CardinalityEncoding.atMostKFromProperties();
+    /**
+     * Whether clauses which remove the symmetric solutions are added to the questions
+     * ("symmetry.breaking" system property)
+     */
+    protected boolean symmetryBreaking = Boolean.getBoolean(Constants.SYMMETRY_BREAKING_PROPERTY);
+    /**
+     * Whether the graph is reduced to its kernel before formulating the questions
+     * ("preprocessing" system property)
+     */
+    protected boolean preprocessing = Boolean.getBoolean(Constants.PREPROCESSING_PROPERTY);
+    /**
+     * The persistent cache of the answers ("cache.dir" system property), or null
+     */
+    protected SolutionCache cache = SolutionCache.fromProperties();
+    /**
+     * The reader of the problem's data, or null to read it from stdin
+     */
+    protected FastReader input;
+    /**
+     * The stream receiving the answer (stdout, unless the task is part of a batch)
+     */
+    protected PrintStream output = System.out;
+    /**
+     * The metrics of the task ("metrics" system property), shared with its oracle
+     */
+    protected Metrics metrics = Metrics.fromProperties();
+    /**
+     * The time given to the questions ("oracle.timeout" and "task.timeout" system
+     * properties), unlimited until the task starts solving
+     */
+    protected TimeBudget budget = TimeBudget.UNLIMITED;
+    /**
+     * Whether cheap heuristics try to settle the problem before any question is
+     * formulated ("heuristics" system property)
+     */
+    protected boolean heuristics = Boolean.getBoolean(Constants.HEURISTICS_PROPERTY);
+    /**
+     * Whether the answer was settled by the heuristics, without the oracle
+     */
+    protected boolean settledByHeuristics;
+    /**
+     * Whether the questions are only counted (see compareEncodings), instead of being
+     * written in the oracle's sinks
+     */
+    private boolean countingOnly;
+
+    protected Task() {
+        oracle.setMetrics(metrics);
+    }
+
+    /**
+     * Read the problem's data, solve the problem and write its answer
+     */
+    public void solve() throws IOException, InterruptedException {
+        read();
+        answer();
+    }
+
+    /**
+     * Read the problem's data, measured as the "read" phase
+     */
+    public void read() throws IOException, InterruptedException {
+        metrics.time(Metrics.READ, this::readProblemData);
+    }
+
+    /**
+     * Solve the problem whose data was read and write its answer, then report the metrics;
+     * the task's time budget starts here, so that reading (e.g. in a batch) does not count
+     */
+    public void answer() throws IOException, InterruptedException {
+        budget = TimeBudget.fromProperties();
+        solveProblem();
+        metrics.report(getClass().getSimpleName());
+    }
+
+    public abstract void solveProblem() throws IOException, InterruptedException;
 
     public abstract void readProblemData() throws IOException;
 
@@ -17,24 +125,159 @@ public abstract class Task {
 
     public abstract void writeAnswer() throws IOException;
 
+    /**
+     * Look for a certificate of the answer with cheap heuristics, and keep it as the answer
+     * @param deadline the time (System.nanoTime) at which the heuristics give up
+     * @return true if a certificate was found
+     */
+    public abstract boolean settleByHeuristics(long deadline);
+
+    /**
+     * Try to settle the problem with the heuristics, if enabled, before formulating any
+     * question; they have their own time budget ("heuristics.timeout" system property, in
+     * milliseconds), and their hits and misses are counted in the metrics
+     * @return true if the heuristics settled the problem
+     */
+    public boolean trySettleByHeuristics() throws IOException, InterruptedException {
+        if (!heuristics) {
+            return false;
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(
+                Long.getLong(Constants.HEURISTICS_TIMEOUT_PROPERTY, DEFAULT_HEURISTICS_MILLIS));
+        settledByHeuristics = metrics.measure(Metrics.HEURISTICS, () -> settleByHeuristics(deadline));
+        metrics.add(settledByHeuristics ? "heuristics.hits" : "heuristics.misses", 1);
+        if (settledByHeuristics && Boolean.getBoolean(Constants.STATS_PROPERTY)) {
+            System.err.println(getClass().getSimpleName() + ": settled by the heuristics");
+        }
+        return settledByHeuristics;
+    }
+
+    /**
+     * Send the formulated question to the oracle and keep its answer, which is
+     * unknown if the question did not fit within the time budget
+     */
     public void askOracle() throws IOException, InterruptedException {
-        ProcessBuilder builder = new ProcessBuilder();
-        builder.redirectErrorStream(true);
-        builder.command("python3", "sat_oracle.py", "sat.cnf", "sat.sol");
-        Process process = builder.start();
-        BufferedReader in = new BufferedReader(new InputStreamReader(process.getInputStream()));
-        String buffer;
-        StringBuilder output = new StringBuilder();
+        metrics.add("question.variables", oracleQuestion.getNoVariables());
+        metrics.add("question.clauses", oracleQuestion.getNoClauses());
+        metrics.add("question.literals", oracleQuestion.getNoLiterals());
+        oracleResponse = metrics.measure(Metrics.ORACLE, () -> budget.limit(() -> oracle.solve(oracleQuestion)));
+        if (oracleResponse == null) {
+            metrics.add("oracle.timeouts", 1);
+            oracleResponse = OracleAnswer.unknown();
+        }
+    }
 
-        while ((buffer = in.readLine()) != null) {
-            output.append(buffer).append("\n");
+    /**
+     * Formulate the question once with each cardinality encoding, and write on
+     * stderr the number of variables and clauses of each formula; the clauses are
+     * only counted, so that no file (e.g. with -Ddimacs.streaming) or solver is left
+     * behind for the questions which are never asked
+     */
+    public void compareEncodings() throws IOException, InterruptedException {
+        CardinalityEncoding chosenAtMostOne = atMostOneEncoding;
+        CardinalityEncoding chosenAtMostK = atMostKEncoding;
+        countingOnly = true;
+        try {
+            for (CardinalityEncoding encoding : CardinalityEncoding.values()) {
+                atMostOneEncoding = encoding;
+                atMostKEncoding = encoding;
+                formulateOracleQuestion();
+                System.err.println(getClass().getSimpleName() + " " + encoding.name().toLowerCase()
+                        + ": " + oracleQuestion.getNoVariables() + " variables, "
+                        + oracleQuestion.getNoClauses() + " clauses, "
+                        + oracleQuestion.getNoLiterals() + " literals");
+            }
+        } finally {
+            countingOnly = false;
+            oracleQuestion = null;
+            atMostOneEncoding = chosenAtMostOne;
+            atMostKEncoding = chosenAtMostK;
         }
+    }
+
+    /**
+     * Create the sink receiving the clauses of a new question: the oracle's, unless the
+     * encodings are being compared
+     * @param noVariables the number of variables of the question
+     * @param expectedClauses the expected number of clauses, only a hint to size the buffers
+     * @return the sink
+     */
+    protected ClauseSink newQuestion(int noVariables, long expectedClauses) throws IOException {
+        if (countingOnly) {
+            return new ClauseCounter(noVariables);
+        }
+        return oracle.newQuestion(noVariables, expectedClauses);
+    }
 
-        int exitCode = process.waitFor();
-        if (exitCode != 0) {
-            System.err.println("Error encountered while running oracle");
-            System.err.println(output.toString());
-            System.exit(-1);
+    /**
+     * Warn on stderr (once per run) that a mode solving on its own, persistent CDCL solver
+     * does not use the oracle selected through the "oracle" system property
+     * @param mode the system property which enabled the mode
+     */
+    protected void warnIfOracleIgnored(String mode) {
+        if (!(oracle instanceof CdclOracle)) {
+            warnOnce("-D" + mode + " solves on the in-JVM CDCL solver, the oracle "
+                    + System.getProperty(Constants.ORACLE_PROPERTY) + " is not used");
         }
     }
+
+    /**
+     * Write a warning on stderr, unless it was already written during this run
+     * @param warning the warning, prefixed with the name of the task
+     */
+    protected void warnOnce(String warning) {
+        if (WARNINGS.add(warning)) {
+            System.err.println(getClass().getSimpleName() + ": " + warning);
+        }
+    }
+
+    /**
+     * @return the reader of the problem's data, over stdin unless another one was given
+     */
+    protected FastReader getInput() {
+        if (input == null) {
+            input = new FastReader(System.in);
+        }
+        return input;
+    }
+
+    public void setInput(FastReader input) {
+        this.input = input;
+    }
+
+    public void setOutput(PrintStream output) {
+        this.output = output;
+    }
+
+    /**
+     * Share the metrics of another task (e.g. the one which created this task)
+     * @param metrics the metrics
+     */
+    public void setMetrics(Metrics metrics) {
+        this.metrics = metrics;
+        oracle.setMetrics(metrics);
+    }
+
+    /**
+     * Share the time budget of another task (e.g. the one which created this task)
+     * @param budget the budget
+     */
+    public void setBudget(TimeBudget budget) {
+        this.budget = budget;
+    }
+
+    /**
+     * @return whether the heuristics are enabled for this task
+     */
+    public boolean hasHeuristics() {
+        return heuristics;
+    }
+
+    public boolean isSettledByHeuristics() {
+        return settledByHeuristics;
+    }
+
+    public OracleAnswer getOracleResponse() {
+        return oracleResponse;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,150 @@
+import java.io.IOException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Class which bounds the time given to the oracle: to each question ("oracle.timeout"
+ * system property, in milliseconds) and to all the questions of a task ("task.timeout",
+ * counted from the start of solving); a question still running at its deadline is cancelled
+ * by interrupting the thread which asked it (the CDCL solver stops searching, the python
+ * oracle is killed) and has no answer, so that the task answers "Unknown" or its best
+ * answer so far instead of waiting
+ */
+public class TimeBudget {
+    /**
+     * The budget of the tasks without time limits
+     */
+    public static final TimeBudget UNLIMITED = new TimeBudget(0, 0);
+
+    /**
+     * The thread interrupting the questions at their deadline, shared by all the budgets
+     */
+    private static class Watchdog {
+        private static final ScheduledThreadPoolExecutor ALARMS = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "oracle-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        static {
+            // most questions answer in time, their alarms are removed at once
+            ALARMS.setRemoveOnCancelPolicy(true);
+        }
+    }
+
+    /**
+     * The time given to each question, in nanoseconds, or 0 if unlimited
+     */
+    private final long questionNanos;
+    /**
+     * The time (System.nanoTime) at which the task's budget is exhausted, if it has one
+     */
+    private final long taskDeadline;
+    private final boolean taskLimited;
+
+    private TimeBudget(final long questionMillis, final long taskMillis) {
+        this.questionNanos = TimeUnit.MILLISECONDS.toNanos(questionMillis);
+        this.taskLimited = taskMillis > 0;
+        this.taskDeadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(taskMillis);
+    }
+
+    /**
+     * Start the budget of a task, as set through the "oracle.timeout" and "task.timeout"
+     * system properties (in milliseconds, unlimited if not set or not positive)
+     * @return the budget
+     */
+    public static TimeBudget fromProperties() {
+        long questionMillis = Long.getLong(Constants.ORACLE_TIMEOUT_PROPERTY, 0);
+        long taskMillis = Long.getLong(Constants.TASK_TIMEOUT_PROPERTY, 0);
+        if (questionMillis <= 0 && taskMillis <= 0) {
+            return UNLIMITED;
+        }
+        return new TimeBudget(Math.max(questionMillis, 0), Math.max(taskMillis, 0));
+    }
+
+    /**
+     * @return whether the questions have a time limit, so that their answer may be unknown
+     */
+    public boolean isLimited() {
+        return questionNanos > 0 || taskLimited;
+    }
+
+    /**
+     * @return whether the task's budget is spent, so that no more questions can be asked
+     */
+    public boolean isExhausted() {
+        return taskLimited && System.nanoTime() - taskDeadline >= 0;
+    }
+
+    /**
+     * Ask a question within the budget: the thread is interrupted at the question's deadline
+     * (the earliest of its own and the task's), and the question is then given up
+     * @param question the question, which stops once its thread is interrupted
+     * @return the answer of the question, or null if it was given up
+     */
+    public <T> T limit(Metrics.Computation<T> question) throws IOException, InterruptedException {
+        if (!isLimited()) {
+            return question.compute();
+        }
+        long timeout = questionNanos > 0 ? questionNanos : Long.MAX_VALUE;
+        if (taskLimited) {
+            timeout = Math.min(timeout, taskDeadline - System.nanoTime());
+        }
+        if (timeout <= 0) {
+            return null;
+        }
+
+        Alarm alarm = new Alarm(Thread.currentThread());
+        ScheduledFuture<?> scheduled = Watchdog.ALARMS.schedule(alarm, timeout, TimeUnit.NANOSECONDS);
+        try {
+            return question.compute();
+        } catch (RuntimeException | IOException | InterruptedException e) {
+            // the oracles report their interruption in their own way
+            // (CancellationException, InterruptedException, ClosedByInterruptException, ...)
+            if (alarm.hasRung()) {
+                return null;
+            }
+            throw e;
+        } finally {
+            scheduled.cancel(false);
+            alarm.disarm();
+        }
+    }
+
+    /**
+     * The interruption of a thread at the deadline of its question, which only
+     * happens while the question runs
+     */
+    private static class Alarm implements Runnable {
+        private final Thread thread;
+        private boolean armed = true;
+        private boolean rung;
+
+        Alarm(final Thread thread) {
+            this.thread = thread;
+        }
+
+        @Override
+        public synchronized void run() {
+            if (armed) {
+                rung = true;
+                thread.interrupt();
+            }
+        }
+
+        synchronized boolean hasRung() {
+            return rung;
+        }
+
+        /**
+         * Stop the alarm once the question is over, clearing the interruption it caused
+         */
+        synchronized void disarm() {
+            armed = false;
+            if (rung) {
+                Thread.interrupted();
+            }
+        }
+    }
+}
@@ -0,0 +1,362 @@
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Class which reduces a vertex cover instance to its kernel, through the degree 0, 1
+ * and 2 rules and the crown rule, and lifts a minimum cover of the kernel back to a
+ * minimum cover of the original graph
+ */
+public class VertexCoverKernel {
+    /**
+     * Number of vertices of the original graph; the vertices created by folding
+     * are numbered after them
+     */
+    private final int noOriginalVertices;
+    /**
+     * The adjacency of the reduced graph, a set of neighbours for each vertex (index 0
+     * unused), so that its memory follows the number of edges, as for a sparse network
+     */
+    private final List<Set<Integer>> adjacency = new ArrayList<>();
+    /**
+     * The vertices which are still within the reduced graph
+     */
+    private final BitSet alive = new BitSet();
+    /**
+     * Number of vertices used so far (original and created by folding)
+     */
+    private int noVertices;
+    /**
+     * The vertices which are part of the cover, decided by the rules
+     */
+    private final List<Integer> cover = new ArrayList<>();
+    /**
+     * The folded vertices of degree 2, as {v, u, w, z}: v and its non-adjacent
+     * neighbours u and w were replaced by z
+     */
+    private final List<int[]> folds = new ArrayList<>();
+    /**
+     * The kernel left after the rules, relabelled from 1
+     */
+    private Subgraph kernel;
+
+    public VertexCoverKernel(final Graph graph) {
+        noOriginalVertices = graph.getNoVertices();
+        noVertices = noOriginalVertices;
+        adjacency.add(null);
+        for (int v = 1; v <= noOriginalVertices; v++) {
+            Set<Integer> neighbours = new HashSet<>();
+            for (int w = graph.nextNeighbour(v, 1); w != -1; w = graph.nextNeighbour(v, w + 1)) {
+                neighbours.add(w);
+            }
+            adjacency.add(neighbours);
+            alive.set(v);
+        }
+    }
+
+    /**
+     * Apply the degree rules until none applies, then the crown rule, as long as
+     * the crown rule removes vertices
+     */
+    public void reduce() {
+        do {
+            applyDegreeRules();
+        } while (applyCrownRule());
+        kernel = buildKernel();
+    }
+
+    /**
+     * @return the kernel left after the rules, relabelled from 1
+     */
+    public Subgraph getKernel() {
+        return kernel;
+    }
+
+    /**
+     * @return the number of vertices decided by the rules to be in the cover (a vertex
+     * created by folding counts as the single vertex it stands for within the cover)
+     */
+    public int getNoDecidedVertices() {
+        return cover.size() + folds.size();
+    }
+
+    /**
+     * Lift a minimum cover of the kernel to a minimum cover of the original graph
+     * @param kernelCover the vertices of the cover, as numbered within the kernel
+     * @return the vertices of the cover within the original graph, in increasing order
+     */
+    public List<Integer> lift(List<Integer> kernelCover) {
+        BitSet inCover = new BitSet();
+        for (int v : cover) {
+            inCover.set(v);
+        }
+        for (int v : kernelCover) {
+            inCover.set(kernel.getOriginalVertex(v));
+        }
+        // undo the folds in reverse order: if z is in the cover, u and w replace it,
+        // otherwise v covers the edges towards u and w
+        for (int f = folds.size() - 1; f >= 0; f--) {
+            int[] fold = folds.get(f);
+            if (inCover.get(fold[3])) {
+                inCover.clear(fold[3]);
+                inCover.set(fold[1]);
+                inCover.set(fold[2]);
+            } else {
+                inCover.set(fold[0]);
+            }
+        }
+
+        List<Integer> lifted = new ArrayList<>();
+        for (int v = inCover.nextSetBit(1); v != -1 && v <= noOriginalVertices; v = inCover.nextSetBit(v + 1)) {
+            lifted.add(v);
+        }
+        return lifted;
+    }
+
+    /**
+     * The degree rules, applied on a worklist of vertices whose degree changed:
+     * a vertex of degree 0 is not in the cover; the neighbour of a vertex of degree 1
+     * is in the cover; for a vertex v of degree 2, both neighbours are in the cover if
+     * they are connected, otherwise v, u and w are folded in a new vertex z
+     */
+    private void applyDegreeRules() {
+        Deque<Integer> worklist = new ArrayDeque<>();
+        for (int v = alive.nextSetBit(0); v != -1; v = alive.nextSetBit(v + 1)) {
+            worklist.add(v);
+        }
+
+        while (!worklist.isEmpty()) {
+            int v = worklist.poll();
+            if (!alive.get(v)) {
+                continue;
+            }
+            int degree = adjacency.get(v).size();
+            if (degree == 0) {
+                alive.clear(v);
+            } else if (degree == 1) {
+                int u = adjacency.get(v).iterator().next();
+                cover.add(u);
+                removeVertex(u, worklist);
+                alive.clear(v);
+            } else if (degree == 2) {
+                Iterator<Integer> neighbours = adjacency.get(v).iterator();
+                int u = neighbours.next();
+                int w = neighbours.next();
+                if (adjacency.get(u).contains(w)) {
+                    cover.add(u);
+                    cover.add(w);
+                    removeVertex(u, worklist);
+                    removeVertex(w, worklist);
+                    alive.clear(v);
+                } else {
+                    fold(v, u, w, worklist);
+                }
+            }
+        }
+    }
+
+    /**
+     * Replace v (of degree 2) and its non-adjacent neighbours u and w with a new vertex z,
+     * connected to all the other neighbours of u and w
+     */
+    private void fold(int v, int u, int w, Deque<Integer> worklist) {
+        int z = ++noVertices;
+        Set<Integer> neighbours = new HashSet<>(adjacency.get(u));
+        neighbours.addAll(adjacency.get(w));
+        neighbours.remove(v);
+
+        removeVertex(v, worklist);
+        removeVertex(u, worklist);
+        removeVertex(w, worklist);
+
+        adjacency.add(neighbours);
+        alive.set(z);
+        for (int x : neighbours) {
+            adjacency.get(x).add(z);
+            worklist.add(x);
+        }
+        worklist.add(z);
+        folds.add(new int[] {v, u, w, z});
+    }
+
+    /**
+     * Remove a vertex and its edges from the reduced graph, and put its
+     * neighbours on the worklist
+     */
+    private void removeVertex(int v, Deque<Integer> worklist) {
+        Set<Integer> neighbours = adjacency.get(v);
+        for (int w : neighbours) {
+            adjacency.get(w).remove(v);
+            worklist.add(w);
+        }
+        neighbours.clear();
+        alive.clear(v);
+    }
+
+    /**
+     * The crown rule: the vertices O left unmatched by a maximal matching are independent;
+     * with a maximum matching M between O and N(O), starting from the vertices of O not
+     * matched by M, alternately add their neighbours H and the partners of H within M,
+     * until the set I of O stops growing; then (I, H) is a crown: H is matched into I and
+     * there are no edges from I outside H, so H is in some minimum cover and I is not
+     * @return whether the rule removed any vertex
+     */
+    private boolean applyCrownRule() {
+        // a maximal matching, built greedily
+        int[] mate = new int[noVertices + 1];
+        for (int v = alive.nextSetBit(0); v != -1; v = alive.nextSetBit(v + 1)) {
+            if (mate[v] == 0) {
+                for (int w : adjacency.get(v)) {
+                    if (mate[w] == 0) {
+                        mate[v] = w;
+                        mate[w] = v;
+                        break;
+                    }
+                }
+            }
+        }
+        List<Integer> outsiders = new ArrayList<>();
+        for (int v = alive.nextSetBit(0); v != -1; v = alive.nextSetBit(v + 1)) {
+            if (mate[v] == 0) {
+                outsiders.add(v);
+            }
+        }
+        if (outsiders.isEmpty()) {
+            return false;
+        }
+
+        // a maximum matching between O and N(O), through augmenting paths
+        int[] outsiderMate = new int[noVertices + 1];
+        int[] neighbourMate = new int[noVertices + 1];
+        for (int o : outsiders) {
+            augment(o, outsiderMate, neighbourMate, new BitSet());
+        }
+
+        BitSet crownIndependent = new BitSet();
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (int o : outsiders) {
+            if (outsiderMate[o] == 0) {
+                crownIndependent.set(o);
+                queue.add(o);
+            }
+        }
+        if (queue.isEmpty()) {
+            // O is perfectly matched into N(O), so (O, N(O)) is a crown if N(O) is matched
+            Set<Integer> neighbourhood = new HashSet<>();
+            for (int o : outsiders) {
+                neighbourhood.addAll(adjacency.get(o));
+            }
+            if (neighbourhood.size() != outsiders.size()) {
+                return false;
+            }
+            for (int o : outsiders) {
+                crownIndependent.set(o);
+            }
+        } else {
+            while (!queue.isEmpty()) {
+                int o = queue.poll();
+                for (int h : adjacency.get(o)) {
+                    int partner = neighbourMate[h];
+                    if (partner != 0 && !crownIndependent.get(partner)) {
+                        crownIndependent.set(partner);
+                        queue.add(partner);
+                    }
+                }
+            }
+        }
+
+        BitSet crownHead = new BitSet();
+        for (int o = crownIndependent.nextSetBit(0); o != -1; o = crownIndependent.nextSetBit(o + 1)) {
+            for (int h : adjacency.get(o)) {
+                crownHead.set(h);
+            }
+        }
+        Deque<Integer> worklist = new ArrayDeque<>();
+        for (int h = crownHead.nextSetBit(0); h != -1; h = crownHead.nextSetBit(h + 1)) {
+            cover.add(h);
+            removeVertex(h, worklist);
+        }
+        for (int o = crownIndependent.nextSetBit(0); o != -1; o = crownIndependent.nextSetBit(o + 1)) {
+            alive.clear(o);
+        }
+        return true;
+    }
+
+    /**
+     * Look for an augmenting path from the vertex o of O (Kuhn's algorithm), through a
+     * depth-first search with an explicit stack, since an alternating path may be as long
+     * as the graph: the path is kept as the vertices of O on it and the neighbours taken
+     * from each of them, and flipped once it reaches an unmatched neighbour
+     */
+    private boolean augment(int o, int[] outsiderMate, int[] neighbourMate, BitSet visited) {
+        List<Integer> pathOutsiders = new ArrayList<>();
+        List<Integer> pathNeighbours = new ArrayList<>();
+        Deque<Iterator<Integer>> candidates = new ArrayDeque<>();
+        pathOutsiders.add(o);
+        candidates.push(adjacency.get(o).iterator());
+        while (!candidates.isEmpty()) {
+            Iterator<Integer> neighbours = candidates.peek();
+            if (!neighbours.hasNext()) {
+                // no augmenting path through the last vertex of O: backtrack
+                candidates.pop();
+                pathOutsiders.remove(pathOutsiders.size() - 1);
+                if (!pathNeighbours.isEmpty()) {
+                    pathNeighbours.remove(pathNeighbours.size() - 1);
+                }
+                continue;
+            }
+            int h = neighbours.next();
+            if (visited.get(h)) {
+                continue;
+            }
+            visited.set(h);
+            pathNeighbours.add(h);
+            if (neighbourMate[h] == 0) {
+                for (int i = 0; i < pathNeighbours.size(); i++) {
+                    neighbourMate[pathNeighbours.get(i)] = pathOutsiders.get(i);
+                    outsiderMate[pathOutsiders.get(i)] = pathNeighbours.get(i);
+                }
+                return true;
+            }
+            pathOutsiders.add(neighbourMate[h]);
+            candidates.push(adjacency.get(neighbourMate[h]).iterator());
+        }
+        return false;
+    }
+
+    /**
+     * @return the subgraph of the vertices still alive, relabelled from 1, built from
+     * its edges (so its representation follows its own number of vertices)
+     */
+    private Subgraph buildKernel() {
+        List<Integer> vertices = new ArrayList<>();
+        int[] labels = new int[noVertices + 1];
+        int m = 0;
+        for (int v = alive.nextSetBit(0); v != -1; v = alive.nextSetBit(v + 1)) {
+            vertices.add(v);
+            labels[v] = vertices.size();
+            m += adjacency.get(v).size();
+        }
+        m /= 2;
+        int[] from = new int[m];
+        int[] to = new int[m];
+        int e = 0;
+        for (int v : vertices) {
+            for (int w : adjacency.get(v)) {
+                if (w > v) {
+                    from[e] = labels[v];
+                    to[e] = labels[w];
+                    e++;
+                }
+            }
+        }
+        return Subgraph.fromEdges(vertices, m, from, to);
+    }
+}
@@ -0,0 +1,123 @@
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+
+/**
+ * Class which keeps a weighted (MaxSAT) formula in memory: hard clauses, which have to be
+ * satisfied, and weighted soft clauses (of weight 1 unless given another one), the total
+ * weight of the falsified ones being minimized
+ */
+public class WeightedFormula implements DimacsFormula {
+    private final Formula hardClauses;
+    private final Formula softClauses;
+    /**
+     * The weight of each soft clause, kept only up to the last one whose weight is not 1
+     */
+    private long[] softWeights = new long[0];
+
+    /**
+     * @param noVariables the number of variables used within the formula
+     * @param expectedHardClauses the expected number of hard clauses, used to size the buffers
+     * @param expectedSoftClauses the expected number of soft clauses
+     */
+    public WeightedFormula(final int noVariables, final int expectedHardClauses,
+                           final int expectedSoftClauses) {
+        this.hardClauses = new Formula(noVariables, expectedHardClauses);
+        this.softClauses = new Formula(noVariables, expectedSoftClauses);
+    }
+
+    /**
+     * @return the sink receiving the hard clauses
+     */
+    public Formula getHardClauses() {
+        return hardClauses;
+    }
+
+    /**
+     * @return the sink receiving the soft clauses, of weight 1
+     */
+    public Formula getSoftClauses() {
+        return softClauses;
+    }
+
+    /**
+     * Add a soft clause with its own weight
+     * @param weight the weight of the clause, at least 1
+     * @param literals the literals of the clause
+     */
+    public void addSoftClause(long weight, int... literals) {
+        if (weight < 1) {
+            throw new IllegalArgumentException("The weight of a soft clause must be positive: " + weight);
+        }
+        int clause = (int) softClauses.getNoClauses();
+        softClauses.addClause(literals);
+        if (weight != 1) {
+            if (clause >= softWeights.length) {
+                int length = softWeights.length;
+                softWeights = Arrays.copyOf(softWeights, Math.max(clause + 1, 2 * length));
+                Arrays.fill(softWeights, length, softWeights.length, 1);
+            }
+            softWeights[clause] = weight;
+        }
+    }
+
+    /**
+     * @param clause the index of a soft clause
+     * @return its weight
+     */
+    public long getSoftWeight(int clause) {
+        return clause < softWeights.length ? softWeights[clause] : 1;
+    }
+
+    /**
+     * @return the total weight of the soft clauses
+     */
+    public long getTotalSoftWeight() {
+        long total = softClauses.getNoClauses();
+        for (long weight : softWeights) {
+            total += weight - 1;
+        }
+        return total;
+    }
+
+    public int getNoVariables() {
+        return Math.max(hardClauses.getNoVariables(), softClauses.getNoVariables());
+    }
+
+    public long getNoClauses() {
+        return hardClauses.getNoClauses() + softClauses.getNoClauses();
+    }
+
+    public long getNoLiterals() {
+        return hardClauses.getNoLiterals() + softClauses.getNoLiterals();
+    }
+
+    /**
+     * The hard clauses are given a weight greater than that of all the soft clauses together
+     */
+    @Override
+    public long writeDimacs(WritableByteChannel channel) throws IOException {
+        long top = getTotalSoftWeight() + 1;
+        DimacsWriter writer = DimacsWriter.withWeightedHeader(channel, getNoVariables(),
+                getNoClauses(), top);
+        try {
+            for (int c = 0; c < hardClauses.getNoClauses(); c++) {
+                writeClause(hardClauses, c, top, writer);
+            }
+            for (int c = 0; c < softClauses.getNoClauses(); c++) {
+                writeClause(softClauses, c, getSoftWeight(c), writer);
+            }
+        } finally {
+            writer.close();
+        }
+        return writer.getNoBytes();
+    }
+
+    private static void writeClause(Formula formula, int c, long weight, DimacsWriter writer) {
+        writer.addWeight(weight);
+        for (int l = formula.clauseStart(c); l < formula.clauseEnd(c); l++) {
+            writer.addLiteral(formula.literalAt(l));
+        }
+        writer.endClause();
+    }
+}
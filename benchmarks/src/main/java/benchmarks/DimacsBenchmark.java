@@ -0,0 +1,89 @@
+package benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of writing a formulated question in DIMACS format (as sent to the
+ * python oracle), reported in files and bytes per second
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DimacsBenchmark {
+    @Param({"Retele", "Registre"})
+    public String task;
+
+    @Param({RandomGraphs.GNP, RandomGraphs.PLANAR, RandomGraphs.INTERFERENCE})
+    public String family;
+
+    @Param({"100"})
+    public int n;
+
+    @Param({"5"})
+    public int k;
+
+    @Param({"42"})
+    public long seed;
+
+    private Object formula;
+    private Path file;
+
+    /**
+     * The number of written bytes
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Bytes {
+        public long bytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            bytes = 0;
+        }
+    }
+
+    @Setup
+    public void setUp() throws IOException {
+        System.setProperty("oracle", "python");
+        List<int[]> edges = RandomGraphs.edges(family, n, seed);
+        Object instance = Reductions.newTask(task);
+        Reductions.readProblemData(instance, RandomGraphs.input(n, edges, k));
+        Reductions.formulateOracleQuestion(instance);
+        formula = Reductions.question(instance);
+        file = Files.createTempFile("benchmark", ".cnf");
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public long writeDimacs(Bytes counters) {
+        long bytes = Reductions.writeDimacs(formula, file);
+        counters.bytes += bytes;
+        return bytes;
+    }
+}
@@ -0,0 +1,97 @@
+package benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of the clause generation (formulating the question in an in-memory
+ * formula, without solving it), reported in questions, clauses and literals per second
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EncodingBenchmark {
+    @Param({"Retele", "Registre"})
+    public String task;
+
+    @Param({RandomGraphs.GNP, RandomGraphs.PLANAR, RandomGraphs.INTERFERENCE})
+    public String family;
+
+    @Param({"100"})
+    public int n;
+
+    @Param({"5"})
+    public int k;
+
+    @Param({"pairwise", "sequential", "commander", "product", "totalizer"})
+    public String encoding;
+
+    @Param({"false", "true"})
+    public boolean parallel;
+
+    @Param({"42"})
+    public long seed;
+
+    /**
+     * Properties set before creating the task (e.g. "retele.encoding=vertex")
+     */
+    @Param({""})
+    public String properties;
+
+    private Object instance;
+
+    /**
+     * The size of the generated questions
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Clauses {
+        public long clauses;
+        public long literals;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            clauses = 0;
+            literals = 0;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        // the python oracle formulates its questions in memory, without solving them here
+        System.setProperty("oracle", "python");
+        System.setProperty("encoding.amo", encoding);
+        System.setProperty("encoding.amk", encoding);
+        System.setProperty("parallel", Boolean.toString(parallel));
+        Reductions.setProperties(properties);
+        List<int[]> edges = RandomGraphs.edges(family, n, seed);
+        instance = Reductions.newTask(task);
+        Reductions.readProblemData(instance, RandomGraphs.input(n, edges, k));
+    }
+
+    @Benchmark
+    public Object formulateOracleQuestion(Clauses counters) {
+        Reductions.formulateOracleQuestion(instance);
+        Object question = Reductions.question(instance);
+        counters.clauses += Reductions.noClauses(question);
+        counters.literals += Reductions.noLiterals(question);
+        return question;
+    }
+}
@@ -0,0 +1,79 @@
+package benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * End-to-end latency of a task once its input is read: formulating the question(s),
+ * asking the oracle and deciphering the answer (the python oracle, selected through
+ * "-p properties=oracle=python", has to be run from the directory of sat_oracle.py)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OracleBenchmark {
+    @Param({"Retele", "Reclame", "Registre"})
+    public String task;
+
+    @Param({RandomGraphs.GNP, RandomGraphs.PLANAR, RandomGraphs.INTERFERENCE})
+    public String family;
+
+    @Param({"30"})
+    public int n;
+
+    @Param({"4"})
+    public int k;
+
+    @Param({"42"})
+    public long seed;
+
+    /**
+     * Properties set before creating the task; Reclame's default linear search over the
+     * positional encoding takes minutes at this size, so the incremental one is used
+     */
+    @Param({"reclame.incremental=true,reclame.search=binary"})
+    public String properties;
+
+    private byte[] input;
+    private Object instance;
+
+    @Setup
+    public void setUp() {
+        Reductions.setProperties(properties);
+        List<int[]> edges = RandomGraphs.edges(family, n, seed);
+        input = RandomGraphs.input(n, edges, task.equals("Reclame") ? 0 : k);
+    }
+
+    @Setup(Level.Invocation)
+    public void readProblemData() {
+        instance = Reductions.newTask(task);
+        Reductions.readProblemData(instance, input);
+    }
+
+    @Benchmark
+    public Object solve() {
+        Reductions.formulateOracleQuestion(instance);
+        // Reclame asks the oracle while searching for the size of the cover
+        if (!task.equals("Reclame")) {
+            Reductions.askOracle(instance);
+        }
+        Reductions.decipherOracleAnswer(instance);
+        return instance;
+    }
+}
@@ -0,0 +1,61 @@
+package benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Time of reading the input of a task (tokenizing and building its graph)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParseBenchmark {
+    @Param({"Retele", "Reclame", "Registre"})
+    public String task;
+
+    @Param({RandomGraphs.GNP, RandomGraphs.PLANAR, RandomGraphs.INTERFERENCE})
+    public String family;
+
+    @Param({"1000"})
+    public int n;
+
+    @Param({"42"})
+    public long seed;
+
+    /**
+     * Properties set before creating the task (e.g. "graph=csr")
+     */
+    @Param({""})
+    public String properties;
+
+    private byte[] input;
+
+    @Setup
+    public void setUp() {
+        Reductions.setProperties(properties);
+        List<int[]> edges = RandomGraphs.edges(family, n, seed);
+        input = RandomGraphs.input(n, edges, task.equals("Reclame") ? 0 : 4);
+    }
+
+    @Benchmark
+    public Object readProblemData() {
+        Object instance = Reductions.newTask(task);
+        Reductions.readProblemData(instance, input);
+        return instance;
+    }
+}
@@ -0,0 +1,105 @@
+package benchmarks;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Seeded random graphs used by the benchmarks, written in the input format of the tasks
+ */
+public final class RandomGraphs {
+    /**
+     * G(n, p) graph, with p = 0.5
+     */
+    public static final String GNP = "gnp";
+    /**
+     * Planar-like graph: a grid with one random diagonal in each cell
+     */
+    public static final String PLANAR = "planar";
+    /**
+     * Dense interference graph: random live ranges, connected when they overlap
+     */
+    public static final String INTERFERENCE = "interference";
+
+    private static final double GNP_PROBABILITY = 0.5;
+
+    private RandomGraphs() {}
+
+    /**
+     * @param family the family of the graph (gnp, planar or interference)
+     * @param n the number of vertices
+     * @param seed the seed of the generator
+     * @return the edges of the graph, as pairs of vertices from 1 to n
+     */
+    public static List<int[]> edges(String family, int n, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        List<int[]> edges = new ArrayList<>();
+        switch (family) {
+            case GNP:
+                for (int v = 1; v < n; v++) {
+                    for (int w = v + 1; w <= n; w++) {
+                        if (random.nextDouble() < GNP_PROBABILITY) {
+                            edges.add(new int[] {v, w});
+                        }
+                    }
+                }
+                break;
+            case PLANAR:
+                int columns = (int) Math.ceil(Math.sqrt(n));
+                for (int v = 1; v <= n; v++) {
+                    int right = v % columns != 0 ? v + 1 : 0;
+                    int down = v + columns;
+                    if (right != 0 && right <= n) {
+                        edges.add(new int[] {v, right});
+                    }
+                    if (down <= n) {
+                        edges.add(new int[] {v, down});
+                    }
+                    // one of the two diagonals of the cell whose top left corner is v
+                    if (right != 0 && down + 1 <= n) {
+                        edges.add(random.nextBoolean() ? new int[] {v, down + 1}
+                                : new int[] {right, down});
+                    }
+                }
+                break;
+            case INTERFERENCE:
+                int[] start = new int[n + 1];
+                int[] end = new int[n + 1];
+                for (int v = 1; v <= n; v++) {
+                    start[v] = random.nextInt(2 * n);
+                    end[v] = start[v] + 1 + random.nextInt(Math.max(1, n / 2));
+                }
+                for (int v = 1; v < n; v++) {
+                    for (int w = v + 1; w <= n; w++) {
+                        if (start[v] < end[w] && start[w] < end[v]) {
+                            edges.add(new int[] {v, w});
+                        }
+                    }
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown graph family: " + family);
+        }
+        return edges;
+    }
+
+    /**
+     * @param n the number of vertices
+     * @param edges the edges of the graph
+     * @param k the size of the clique / number of registers, or 0 when the task has none
+     * @return the input of a task for the graph
+     */
+    public static byte[] input(int n, List<int[]> edges, int k) {
+        StringBuilder input = new StringBuilder();
+        input.append(n).append(' ').append(edges.size());
+        if (k > 0) {
+            input.append(' ').append(k);
+        }
+        input.append('\n');
+        for (int[] edge : edges) {
+            input.append(edge[0]).append(' ').append(edge[1]).append('\n');
+        }
+        return input.toString().getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,169 @@
+package benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.file.Path;
+
+/**
+ * Access to the tasks, which live in the default package (that JMH cannot generate
+ * benchmarks for, and that cannot be imported), through reflection; the lookups are
+ * done once, so the benchmarks only pay for Method.invoke
+ */
+public final class Reductions {
+    private static final Class<?> TASK = load("Task");
+    private static final Class<?> CLAUSE_SINK = load("ClauseSink");
+    private static final Class<?> FORMULA = load("Formula");
+    private static final Class<?> DIMACS_WRITER = load("DimacsWriter");
+
+    private static final Method READ_PROBLEM_DATA = method(TASK, "readProblemData");
+    private static final Method FORMULATE_ORACLE_QUESTION = method(TASK, "formulateOracleQuestion");
+    private static final Method ASK_ORACLE = method(TASK, "askOracle");
+    private static final Method DECIPHER_ORACLE_ANSWER = method(TASK, "decipherOracleAnswer");
+    private static final Field ORACLE_QUESTION = field(TASK, "oracleQuestion");
+    private static final Method GET_NO_VARIABLES = method(CLAUSE_SINK, "getNoVariables");
+    private static final Method GET_NO_CLAUSES = method(CLAUSE_SINK, "getNoClauses");
+    private static final Method GET_NO_LITERALS = method(CLAUSE_SINK, "getNoLiterals");
+    private static final Method COPY_TO = method(FORMULA, "copyTo", CLAUSE_SINK);
+    private static final Method WITH_HEADER = method(DIMACS_WRITER, "withHeader",
+            Path.class, int.class, long.class);
+    private static final Method CLOSE = method(DIMACS_WRITER, "close");
+    private static final Method GET_NO_BYTES = method(DIMACS_WRITER, "getNoBytes");
+
+    private Reductions() {}
+
+    /**
+     * Set the system properties read by the tasks (the oracle, the encodings, the graph
+     * representation, ...), before creating them
+     * @param properties comma-separated key=value pairs (possibly empty)
+     */
+    public static void setProperties(String properties) {
+        for (String property : properties.split(",")) {
+            int equals = property.indexOf('=');
+            if (equals > 0) {
+                System.setProperty(property.substring(0, equals).trim(),
+                        property.substring(equals + 1).trim());
+            }
+        }
+    }
+
+    /**
+     * @param name the name of the task (Retele, Reclame or Registre)
+     * @return a new instance of the task, with the oracle and encodings of the current properties
+     */
+    public static Object newTask(String name) {
+        try {
+            Constructor<?> constructor = load(name).getDeclaredConstructor();
+            constructor.setAccessible(true);
+            return constructor.newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Read the problem data of the task from the given input, instead of stdin
+     */
+    public static void readProblemData(Object task, byte[] input) {
+        InputStream stdin = System.in;
+        System.setIn(new ByteArrayInputStream(input));
+        try {
+            invoke(READ_PROBLEM_DATA, task);
+        } finally {
+            System.setIn(stdin);
+        }
+    }
+
+    public static void formulateOracleQuestion(Object task) {
+        invoke(FORMULATE_ORACLE_QUESTION, task);
+    }
+
+    public static void askOracle(Object task) {
+        invoke(ASK_ORACLE, task);
+    }
+
+    public static void decipherOracleAnswer(Object task) {
+        invoke(DECIPHER_ORACLE_ANSWER, task);
+    }
+
+    /**
+     * @return the question formulated by the task (a ClauseSink)
+     */
+    public static Object question(Object task) {
+        try {
+            return ORACLE_QUESTION.get(task);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static int noVariables(Object sink) {
+        return (Integer) invoke(GET_NO_VARIABLES, sink);
+    }
+
+    public static long noClauses(Object sink) {
+        return (Long) invoke(GET_NO_CLAUSES, sink);
+    }
+
+    public static long noLiterals(Object sink) {
+        return (Long) invoke(GET_NO_LITERALS, sink);
+    }
+
+    /**
+     * Write a formula in DIMACS format, as the python oracle does
+     * @param formula the formula (a Formula)
+     * @param path the path of the written file
+     * @return the number of written bytes
+     */
+    public static long writeDimacs(Object formula, Path path) {
+        Object writer = invoke(WITH_HEADER, null, path, noVariables(formula), noClauses(formula));
+        invoke(COPY_TO, formula, writer);
+        invoke(CLOSE, writer);
+        return (Long) invoke(GET_NO_BYTES, writer);
+    }
+
+    private static Object invoke(Method method, Object target, Object... arguments) {
+        try {
+            return method.invoke(target, arguments);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        } catch (InvocationTargetException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    private static Class<?> load(String name) {
+        try {
+            return Class.forName(name);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Method method(Class<?> type, String name, Class<?>... parameters) {
+        try {
+            Method method = type.getMethod(name, parameters);
+            method.setAccessible(true);
+            return method;
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Field field(Class<?> type, String name) {
+        try {
+            Field field = type.getDeclaredField(name);
+            field.setAccessible(true);
+            return field;
+        } catch (NoSuchFieldException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -3,16 +3,31 @@
 from pysat.formula import CNF, WCNF
 from pysat.examples.rc2 import RC2
 from pysat.solvers import Solver
+import contextlib
+import io
 import sys
 
+# "-" stands for the standard input / output, so that no file is needed
+STANDARD_STREAM = '-'
+# the option which keeps the oracle running, answering the questions of its standard input
+SERVER_OPTION = '--server'
 
-def solve_cnf(input_file, output_file):
-    cnf = CNF(input_file)
-    solver = Solver(name='g4')
+
+def open_output(output_file):
+    if not isinstance(output_file, str):
+        # already an open stream, e.g. the buffer of an answer in server mode
+        return contextlib.nullcontext(output_file)
+    if output_file == STANDARD_STREAM:
+        return contextlib.nullcontext(sys.stdout)
+    return open(output_file, 'w')
+
+
+def solve_cnf(cnf, output_file, engine='g4'):
+    solver = Solver(name=engine)
     solver.append_formula(cnf)
     status = solver.solve()
 
-    with open(output_file, 'w') as f:
+    with open_output(output_file) as f:
         if status:
             f.write("True\n")
             f.write(str(len(solver.get_model())))
@@ -22,32 +37,77 @@ def solve_cnf(input_file, output_file):
             f.write("False\n")
 
 
-def solve_wcnf(input_file, output_file):
-    wcnf = WCNF(input_file)
+def solve_wcnf(wcnf, output_file):
     with RC2(wcnf) as rc2:
         nodes = rc2.compute()
         cost = rc2.cost
 
-    with open(output_file, 'w') as f:
+    with open_output(output_file) as f:
+        if nodes is None:
+            # the hard clauses cannot be satisfied
+            f.write("False\n")
+            return
         f.write(str(len(nodes)) + ' ' + str(cost))
         f.write('\n')
         f.write(''.join(list(map(lambda x: str(x) + ' ', nodes))))
         f.write('\n')
 
 
-def solve_sat(input_file, output_file):
+def solve_sat(input_file, output_file, engine='g4'):
+    if input_file == STANDARD_STREAM:
+        # the standard input can only be read once, so its text is kept
+        solve_text(sys.stdin.read(), output_file, engine)
+        return
+
+    # a file is parsed by pysat directly, without holding its whole text as well
     with open(input_file) as f:
         clause_type = f.readline().split()[1]
 
     if clause_type == "cnf":
-        solve_cnf(input_file, output_file)
+        solve_cnf(CNF(from_file=input_file), output_file, engine)
     elif clause_type == "wcnf":
-        solve_wcnf(input_file, output_file)
+        solve_wcnf(WCNF(from_file=input_file), output_file)
+
+
+def solve_text(text, output_file, engine='g4'):
+    clause_type = text[:text.find('\n')].split()[1]
+
+    if clause_type == "cnf":
+        solve_cnf(CNF(from_string=text), output_file, engine)
+    elif clause_type == "wcnf":
+        solve_wcnf(WCNF(from_string=text), output_file)
+
+
+def serve(engine='g4'):
+    # each question is a line with its size in bytes, followed by the formula; each answer
+    # is written the same way, so the process keeps running (and pysat stays imported)
+    # until its standard input is closed
+    requests = sys.stdin.buffer
+    answers = sys.stdout.buffer
+    # anything printed by the solvers must not get mixed with the answers
+    sys.stdout = sys.stderr
+
+    while True:
+        header = requests.readline()
+        if not header:
+            break
+        text = requests.read(int(header)).decode()
+        answer = io.StringIO()
+        solve_text(text, answer, engine)
+        payload = answer.getvalue().encode()
+        answers.write(str(len(payload)).encode() + b'\n')
+        answers.write(payload)
+        answers.flush()
 
 
 if __name__ == "__main__":
-    if len(sys.argv) != 3:
+    if len(sys.argv) in (2, 3) and sys.argv[1] == SERVER_OPTION:
+        serve(*sys.argv[2:])
+        sys.exit(0)
+    if len(sys.argv) not in (3, 4):
         print(f"Wrong number of arguments (received {sys.argv})", file=sys.stderr)
-        print("    Usage: python sat_oracle.py <input_filename> <output_filename>")
+        print("    Usage: python sat_oracle.py <input_filename> <output_filename> [<engine>]")
+        print("    (use - for the standard input / output)")
+        print("    Usage: python sat_oracle.py --server [<engine>]")
         sys.exit(-1)
-    solve_sat(sys.argv[1], sys.argv[2])
+    solve_sat(*sys.argv[1:])
@@ -0,0 +1,213 @@
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Exhaustive tests of the cardinality encodings: for small numbers of literals and every
+ * bound, each encoding projected onto its input variables must accept exactly the
+ * assignments of the inputs which meet the constraint; each assignment is assumed on the
+ * CDCL solver, and every model it returns is checked against the clauses written
+ */
+public class CardinalityEncoderTest {
+    private static final int MAX_AT_MOST_ONE_LITERALS = 12;
+    private static final int MAX_AT_MOST_K_LITERALS = 9;
+    private static final int MAX_COUNTER_LITERALS = 8;
+    private static final CardinalityEncoding[] AT_MOST_K_ENCODINGS = {
+            CardinalityEncoding.SEQUENTIAL, CardinalityEncoding.TOTALIZER};
+
+    public static void main(String[] args) {
+        Random random = new Random(1);
+        atMostOne(random);
+        atMostK(random);
+        atLeastK(random);
+        atLeastCounter(random);
+        atMostCounter(random);
+        System.out.println("CardinalityEncoderTest: OK");
+    }
+
+    /**
+     * At most one of n literals, with each of the five encodings
+     */
+    private static void atMostOne(Random random) {
+        for (CardinalityEncoding encoding : CardinalityEncoding.values()) {
+            for (int n = 0; n <= MAX_AT_MOST_ONE_LITERALS; n++) {
+                int[] literals = randomLiterals(n, random);
+                Formula formula = new Formula(n);
+                CardinalityEncoder.atMostOne(formula, literals, encoding);
+                checkProjection(formula, literals, 0, 1, "at most one, " + encoding + ", n = " + n);
+            }
+        }
+    }
+
+    /**
+     * At most k of n literals, for every k from -1 to n + 1, with the sequential counter
+     * and the totalizer
+     */
+    private static void atMostK(Random random) {
+        for (CardinalityEncoding encoding : AT_MOST_K_ENCODINGS) {
+            for (int n = 0; n <= MAX_AT_MOST_K_LITERALS; n++) {
+                for (int k = -1; k <= n + 1; k++) {
+                    int[] literals = randomLiterals(n, random);
+                    Formula formula = new Formula(n);
+                    CardinalityEncoder.atMostK(formula, literals, k, encoding);
+                    checkProjection(formula, literals, 0, k, "at most " + k + ", " + encoding + ", n = " + n);
+                }
+            }
+        }
+    }
+
+    /**
+     * At least k of n literals, for every k from -1 to n + 1, with the sequential counter
+     * and the totalizer
+     */
+    private static void atLeastK(Random random) {
+        for (CardinalityEncoding encoding : AT_MOST_K_ENCODINGS) {
+            for (int n = 0; n <= MAX_AT_MOST_K_LITERALS; n++) {
+                for (int k = -1; k <= n + 1; k++) {
+                    int[] literals = randomLiterals(n, random);
+                    Formula formula = new Formula(n);
+                    CardinalityEncoder.atLeastK(formula, literals, k, encoding);
+                    checkProjection(formula, literals, k, n, "at least " + k + ", " + encoding + ", n = " + n);
+                }
+            }
+        }
+    }
+
+    /**
+     * The unary counter: alone, it accepts every assignment of the inputs, and with its
+     * output j assumed, exactly those with at least j true literals
+     */
+    private static void atLeastCounter(Random random) {
+        for (CardinalityEncoding encoding : AT_MOST_K_ENCODINGS) {
+            for (int n = 1; n <= MAX_COUNTER_LITERALS; n++) {
+                int[] literals = randomLiterals(n, random);
+                Formula formula = new Formula(n);
+                int[] outputs = CardinalityEncoder.atLeastCounter(formula, literals, encoding);
+                TestSupport.check(outputs.length == n + 1, "counter, " + encoding + ", n = " + n
+                        + ": " + (outputs.length - 1) + " outputs");
+                checkProjection(formula, literals, 0, n, "counter, " + encoding + ", n = " + n);
+                for (int j = 1; j <= n; j++) {
+                    checkProjection(formula, literals, j, n, "counter output " + j + ", " + encoding + ", n = " + n,
+                            outputs[j]);
+                }
+            }
+        }
+    }
+
+    /**
+     * The bounded counter, over literals repeated up to three times (as the weights of the
+     * soft clauses): alone, it accepts every assignment of the inputs, and with its output
+     * j negated, exactly those with fewer than j true literals (counting the repetitions)
+     */
+    private static void atMostCounter(Random random) {
+        for (CardinalityEncoding encoding : AT_MOST_K_ENCODINGS) {
+            for (int n = 1; n <= MAX_COUNTER_LITERALS; n++) {
+                int[] distinct = randomLiterals(n, random);
+                int noRepeated = n <= MAX_COUNTER_LITERALS / 2 ? 3 : 1;
+                int[] literals = new int[0];
+                for (int literal : distinct) {
+                    int times = 1 + random.nextInt(noRepeated);
+                    literals = Arrays.copyOf(literals, literals.length + times);
+                    Arrays.fill(literals, literals.length - times, literals.length, literal);
+                }
+                for (int limit = 1; limit <= literals.length; limit++) {
+                    String name = "bounded counter (" + limit + "), " + encoding + ", " + literals.length + " literals";
+                    Formula formula = new Formula(n);
+                    int[] outputs = CardinalityEncoder.atMostCounter(formula, literals, limit, encoding);
+                    TestSupport.check(outputs.length == limit + 1, name + ": " + (outputs.length - 1) + " outputs");
+                    checkProjection(formula, literals, 0, literals.length, name);
+                    for (int j = 1; j <= limit; j++) {
+                        checkProjection(formula, literals, 0, j - 1, name + ", output " + j + " negated", -outputs[j]);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Check that, for each assignment of the input variables (with the extra assumptions),
+     * the clauses are satisfiable exactly when the number of true literals is within the bounds
+     * @param formula the clauses of the encoding, over the variables 1..n of the inputs
+     * and the auxiliary variables it created
+     * @param literals the inputs of the constraint
+     * @param atLeast the minimum number of true literals
+     * @param atMost the maximum number of true literals
+     * @param name the constraint, for the failure messages
+     * @param extraAssumptions literals assumed with each assignment
+     */
+    private static void checkProjection(Formula formula, int[] literals, int atLeast, int atMost, String name,
+                                        int... extraAssumptions) {
+        // the input variables, each of which may be repeated within the literals
+        int n = 0;
+        for (int literal : literals) {
+            n = Math.max(n, Math.abs(literal));
+        }
+        CdclSolver solver = new CdclSolver();
+        solver.addFormula(formula);
+        for (int assignment = 0; assignment < 1 << n; assignment++) {
+            int[] assumptions = new int[n + extraAssumptions.length];
+            for (int v = 1; v <= n; v++) {
+                assumptions[v - 1] = (assignment >> (v - 1) & 1) == 1 ? v : -v;
+            }
+            System.arraycopy(extraAssumptions, 0, assumptions, n, extraAssumptions.length);
+            int noTrue = 0;
+            for (int literal : literals) {
+                if ((literal > 0) == ((assignment >> (Math.abs(literal) - 1) & 1) == 1)) {
+                    noTrue++;
+                }
+            }
+            boolean expected = noTrue >= atLeast && noTrue <= atMost;
+            boolean satisfiable = solver.solve(assumptions);
+            TestSupport.check(satisfiable == expected, name + ": " + noTrue + " true literals "
+                    + (expected ? "rejected" : "accepted"));
+            if (satisfiable) {
+                TestSupport.check(satisfies(formula, solver.getModel(), assumptions),
+                        name + ": the model does not satisfy the clauses or the assumptions");
+            }
+        }
+    }
+
+    /**
+     * @return the literals of the variables 1..n, in a random order and with random signs
+     */
+    private static int[] randomLiterals(int n, Random random) {
+        int[] literals = new int[n];
+        for (int i = 0; i < n; i++) {
+            literals[i] = i + 1;
+        }
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = literals[i];
+            literals[i] = literals[j];
+            literals[j] = swap;
+        }
+        for (int i = 0; i < n; i++) {
+            if (random.nextBoolean()) {
+                literals[i] = -literals[i];
+            }
+        }
+        return literals;
+    }
+
+    private static boolean satisfies(Formula formula, int[] model, int[] assumptions) {
+        for (int literal : assumptions) {
+            if (!isTrue(model, literal)) {
+                return false;
+            }
+        }
+        for (int c = 0; c < formula.getNoClauses(); c++) {
+            boolean satisfied = false;
+            for (int i = formula.clauseStart(c); i < formula.clauseEnd(c) && !satisfied; i++) {
+                satisfied = isTrue(model, formula.literalAt(i));
+            }
+            if (!satisfied) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isTrue(int[] model, int literal) {
+        // the model holds the literal of variable v at index v - 1
+        return model[Math.abs(literal) - 1] == literal;
+    }
+}
@@ -0,0 +1,230 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Tests of the CDCL solver: its answers against brute force on small formulas, the models
+ * it returns, the assumptions and the clauses added between calls, and its cancellation
+ */
+public class CdclSolverTest {
+    private static final int NO_FORMULAS = 300;
+
+    public static void main(String[] args) throws InterruptedException {
+        knownFormulas();
+        randomFormulas();
+        assumptions();
+        incrementalClauses();
+        interruption();
+        System.out.println("CdclSolverTest: OK");
+    }
+
+    /**
+     * Small formulas whose answer is known, including the pigeonhole ones (unsatisfiable)
+     */
+    private static void knownFormulas() {
+        TestSupport.check(new CdclSolver().solve(), "the empty formula is satisfiable");
+
+        CdclSolver contradiction = new CdclSolver();
+        contradiction.addClause(1);
+        contradiction.addClause(-1);
+        TestSupport.check(!contradiction.solve(), "x and !x is unsatisfiable");
+
+        CdclSolver empty = new CdclSolver();
+        TestSupport.check(!empty.addClause(), "the empty clause makes the solver unsatisfiable");
+        TestSupport.check(!empty.solve(), "the empty clause is unsatisfiable");
+
+        for (int holes = 1; holes <= 6; holes++) {
+            TestSupport.check(!pigeonhole(holes + 1, holes).solve(),
+                    (holes + 1) + " pigeons fit in " + holes + " holes");
+            CdclSolver fitting = pigeonhole(holes, holes);
+            TestSupport.check(fitting.solve(), holes + " pigeons do not fit in " + holes + " holes");
+            TestSupport.check(TestSupport.satisfies(pigeonholeClauses(holes, holes),
+                    TestSupport.toAssignment(fitting.getModel())), "the pigeonhole model is not valid");
+        }
+    }
+
+    /**
+     * Random 3-SAT formulas around the threshold, the answer and the model being checked
+     * by brute force, with and without a random seed
+     */
+    private static void randomFormulas() {
+        Random random = new Random(1);
+        for (int f = 0; f < NO_FORMULAS; f++) {
+            int noVariables = 3 + random.nextInt(14);
+            List<int[]> clauses = TestSupport.randomFormula(noVariables,
+                    (int) (noVariables * (3.5 + random.nextDouble())), 1 + random.nextInt(3), random);
+            boolean expected = TestSupport.isSatisfiable(clauses, noVariables);
+
+            CdclSolver solver = new CdclSolver();
+            if (f % 2 == 1) {
+                solver.setRandomSeed(f);
+            }
+            for (int[] clause : clauses) {
+                solver.addClause(clause);
+            }
+            boolean satisfiable = solver.solve();
+            TestSupport.check(satisfiable == expected, "formula " + f + ": answered " + satisfiable);
+            if (satisfiable) {
+                TestSupport.check(TestSupport.satisfies(clauses, TestSupport.toAssignment(solver.getModel())),
+                        "formula " + f + ": the model falsifies a clause");
+            }
+        }
+    }
+
+    /**
+     * Calls under assumptions: the answer matches the formula with the assumptions as
+     * unit clauses, the model satisfies them, the failed assumptions are among the given
+     * ones and refute the formula on their own, and nothing is kept for the next call
+     */
+    private static void assumptions() {
+        Random random = new Random(2);
+        for (int f = 0; f < NO_FORMULAS; f++) {
+            int noVariables = 4 + random.nextInt(10);
+            List<int[]> clauses = TestSupport.randomFormula(noVariables, 3 * noVariables, 3, random);
+            CdclSolver solver = new CdclSolver();
+            for (int[] clause : clauses) {
+                solver.addClause(clause);
+            }
+            boolean satisfiable = TestSupport.isSatisfiable(clauses, noVariables);
+
+            for (int call = 0; call < 5; call++) {
+                int[] assumed = new int[1 + random.nextInt(4)];
+                for (int i = 0; i < assumed.length; i++) {
+                    int v = 1 + random.nextInt(noVariables);
+                    assumed[i] = random.nextBoolean() ? v : -v;
+                }
+                List<int[]> withAssumptions = new ArrayList<>(clauses);
+                for (int literal : assumed) {
+                    withAssumptions.add(new int[] {literal});
+                }
+                boolean expected = TestSupport.isSatisfiable(withAssumptions, noVariables);
+
+                boolean answer = solver.solve(assumed);
+                TestSupport.check(answer == expected, "formula " + f + " under " + Arrays.toString(assumed)
+                        + ": answered " + answer);
+                if (answer) {
+                    TestSupport.check(TestSupport.satisfies(withAssumptions,
+                            TestSupport.toAssignment(solver.getModel())),
+                            "formula " + f + ": the model falsifies a clause or an assumption");
+                } else {
+                    List<int[]> withFailed = new ArrayList<>(clauses);
+                    for (int literal : solver.getFailedAssumptions()) {
+                        TestSupport.check(Arrays.stream(assumed).anyMatch(a -> a == literal),
+                                "formula " + f + ": " + literal + " was not assumed");
+                        withFailed.add(new int[] {literal});
+                    }
+                    TestSupport.check(!TestSupport.isSatisfiable(withFailed, noVariables),
+                            "formula " + f + ": the failed assumptions do not refute the formula");
+                }
+                // the assumptions only hold for their call
+                TestSupport.check(solver.solve() == satisfiable, "formula " + f + ": an assumption was kept");
+            }
+        }
+    }
+
+    /**
+     * Clauses added between the calls, the answers following the growing formula
+     */
+    private static void incrementalClauses() {
+        Random random = new Random(3);
+        for (int f = 0; f < NO_FORMULAS / 3; f++) {
+            int noVariables = 6 + random.nextInt(8);
+            List<int[]> clauses = new ArrayList<>();
+            CdclSolver solver = new CdclSolver();
+            for (int step = 0; step < 10; step++) {
+                for (int[] clause : TestSupport.randomFormula(noVariables, noVariables / 2, 3, random)) {
+                    clauses.add(clause);
+                    solver.addClause(clause);
+                }
+                boolean expected = TestSupport.isSatisfiable(clauses, noVariables);
+                boolean answer = solver.solve();
+                TestSupport.check(answer == expected, "formula " + f + " at step " + step + ": answered " + answer);
+                if (answer) {
+                    TestSupport.check(TestSupport.satisfies(clauses, TestSupport.toAssignment(solver.getModel())),
+                            "formula " + f + " at step " + step + ": the model falsifies a clause");
+                } else {
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * A search interrupted from another thread stops soon, and the solver can be asked again
+     */
+    private static void interruption() throws InterruptedException {
+        CdclSolver hard = pigeonhole(12, 11);
+        Thread asking = Thread.currentThread();
+        Thread interrupter = new Thread(() -> {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                return;
+            }
+            asking.interrupt();
+        });
+        interrupter.start();
+        long start = System.nanoTime();
+        boolean cancelled = false;
+        try {
+            hard.solve();
+        } catch (CancellationException e) {
+            cancelled = true;
+        }
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        interrupter.join();
+        // clear the flag, in case the search ended before the interruption
+        Thread.interrupted();
+        TestSupport.check(cancelled, "the search was not interrupted");
+        TestSupport.check(millis < 2000, "the interrupted search took " + millis + " ms to stop");
+
+        // an interrupted solver is left ready for the next questions
+        CdclSolver solver = pigeonhole(5, 5);
+        Thread.currentThread().interrupt();
+        boolean interrupted = false;
+        try {
+            solver.solve();
+        } catch (CancellationException e) {
+            interrupted = true;
+        }
+        TestSupport.check(interrupted,
+                "an interrupted thread was not cancelled");
+        Thread.interrupted();
+        TestSupport.check(solver.solve(), "the solver cannot be asked again after a cancellation");
+        solver.addClause(-1);
+        TestSupport.check(solver.solve() && solver.getModel()[0] == -1, "a clause added after a cancellation is ignored");
+    }
+
+    /**
+     * The pigeonhole formula: each pigeon is in a hole (variable (p - 1) * holes + h),
+     * and no two pigeons share one
+     */
+    private static List<int[]> pigeonholeClauses(int pigeons, int holes) {
+        List<int[]> clauses = new ArrayList<>();
+        for (int p = 0; p < pigeons; p++) {
+            int[] somewhere = new int[holes];
+            for (int h = 0; h < holes; h++) {
+                somewhere[h] = p * holes + h + 1;
+            }
+            clauses.add(somewhere);
+        }
+        for (int h = 0; h < holes; h++) {
+            for (int p = 0; p < pigeons; p++) {
+                for (int q = p + 1; q < pigeons; q++) {
+                    clauses.add(new int[] {-(p * holes + h + 1), -(q * holes + h + 1)});
+                }
+            }
+        }
+        return clauses;
+    }
+
+    private static CdclSolver pigeonhole(int pigeons, int holes) {
+        CdclSolver solver = new CdclSolver();
+        for (int[] clause : pigeonholeClauses(pigeons, holes)) {
+            solver.addClause(clause);
+        }
+        return solver;
+    }
+}
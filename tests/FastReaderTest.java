@@ -0,0 +1,93 @@
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Tests of the reader of the inputs: the integers and words it reads, from a stream and
+ * from a mapped file, and the words it rejects as integers instead of reading them as 0
+ */
+public class FastReaderTest {
+    private static final String[] NOT_INTEGERS = {
+            "abc", "1x", "x1", "-", "--1", "+5", "1-2", "2147483648", "-2147483649", "99999999999", "00012345678901", "0042x", "1.5", "\u00e91"};
+
+    public static void main(String[] args) throws IOException {
+        integers();
+        words();
+        notIntegers();
+        System.out.println("FastReaderTest: OK");
+    }
+
+    /**
+     * Integers separated by any whitespace, including the bounds of int, from both sources
+     */
+    private static void integers() throws IOException {
+        String text = "  3 -7\r\n0\t2147483647\n-2147483648 \n 0042";
+        int[] expected = {3, -7, 0, Integer.MAX_VALUE, Integer.MIN_VALUE, 42};
+        for (FastReader reader : readers(text)) {
+            for (int value : expected) {
+                int read = reader.nextInt();
+                TestSupport.check(read == value, "read " + read + " instead of " + value);
+            }
+            TestSupport.check(nextIntFailure(reader) != null, "an integer was read past the end of the input");
+        }
+    }
+
+    private static void words() throws IOException {
+        for (FastReader reader : readers("True\n1 2 3 \nFalse")) {
+            TestSupport.check("True".equals(reader.nextWord()), "the first word is not True");
+            TestSupport.check(reader.nextInt() == 1 && reader.nextInt() == 2 && reader.nextInt() == 3,
+                    "the integers between the words were not read");
+            TestSupport.check("False".equals(reader.nextWord()), "the last word is not False");
+            TestSupport.check(reader.nextWord() == null, "a word was read past the end of the input");
+        }
+    }
+
+    /**
+     * Each word which is not an integer of the range of int fails, followed or not by
+     * other words, and the failure names the whole word (for the ASCII ones, the others
+     * being read byte by byte)
+     */
+    private static void notIntegers() throws IOException {
+        for (String word : NOT_INTEGERS) {
+            for (String text : new String[] {word, word + " 5", "1 " + word}) {
+                for (FastReader reader : readers(text)) {
+                    if (text.startsWith("1 ")) {
+                        TestSupport.check(reader.nextInt() == 1, "the integer before \"" + word + "\" was not read");
+                    }
+                    String failure = nextIntFailure(reader);
+                    TestSupport.check(failure != null, "\"" + word + "\" was read as an integer");
+                    TestSupport.check(!word.chars().allMatch(c -> c < 128) || failure.contains("\"" + word + "\""),
+                            "the failure \"" + failure + "\" does not name \"" + word + "\"");
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the message of the failure of nextInt, or null if an integer was read
+     */
+    private static String nextIntFailure(FastReader reader) {
+        try {
+            reader.nextInt();
+            return null;
+        } catch (IOException e) {
+            return e.getMessage();
+        }
+    }
+
+    /**
+     * @return a reader of the text from a stream, and another from a mapped file
+     */
+    private static FastReader[] readers(String text) throws IOException {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        Path file = Files.createTempFile("reader-test", ".in");
+        try {
+            Files.write(file, bytes);
+            return new FastReader[] {new FastReader(new ByteArrayInputStream(bytes)), FastReader.open(file)};
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
@@ -0,0 +1,232 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * Tests of the solution cache and of the canonical labelling: an answer kept for a graph
+ * is found again for a random relabelling of it, and mapped back to the new labels it is
+ * still an answer (a maximum clique, a proper coloring); a cache which cannot be written
+ * drops the answer instead of failing
+ */
+public class SolutionCacheTest {
+    private static final int NO_GRAPHS = 300;
+    private static final int MIN_VERTICES = 6;
+    private static final int MAX_VERTICES = 14;
+
+    public static void main(String[] args) throws IOException {
+        Path directory = Files.createTempDirectory("cache-test");
+        try {
+            testRelabelledGraphs(directory.resolve("answers"));
+            testUnwritableCache(directory);
+        } finally {
+            deleteRecursively(directory);
+        }
+        System.out.println("SolutionCacheTest: OK");
+    }
+
+    /**
+     * Keep the maximum clique and a coloring of random graphs, then look them up with a
+     * relabelled copy of each graph, in either representation
+     */
+    private static void testRelabelledGraphs(Path directory) {
+        Random random = new Random(1);
+        SolutionCache cache = new SolutionCache(directory, NO_GRAPHS * 2);
+        int noHits = 0;
+        for (int g = 0; g < NO_GRAPHS; g++) {
+            System.setProperty(Constants.GRAPH_PROPERTY, g % 2 == 0 ? Constants.BITSET_GRAPH : Constants.CSR_GRAPH);
+            int n = MIN_VERTICES + random.nextInt(MAX_VERTICES - MIN_VERTICES + 1);
+            Graph graph = TestSupport.randomGraph(n, 0.2 + 0.6 * random.nextDouble(), random);
+            CanonicalGraph canonical = new CanonicalGraph(graph);
+            checkLabelling(canonical, n, "graph " + g);
+
+            List<Integer> clique = maximumClique(graph);
+            int[] cliqueValues = new int[clique.size()];
+            for (int i = 0; i < clique.size(); i++) {
+                cliqueValues[i] = canonical.getCanonicalLabel(clique.get(i));
+            }
+            cache.put(SolutionCache.CLIQUE, canonical, clique.size(), cliqueValues);
+            int[] coloring = greedyColoring(graph);
+            int[] coloringValues = new int[n];
+            for (int v = 1; v <= n; v++) {
+                coloringValues[canonical.getCanonicalLabel(v) - 1] = coloring[v];
+            }
+            cache.put(SolutionCache.COLORING, canonical, 0, coloringValues);
+
+            // the relabelled copy: vertex v of the graph is vertex permutation[v] of the copy
+            int[] permutation = randomPermutation(n, random);
+            Graph copy = relabel(graph, permutation);
+            CanonicalGraph canonicalCopy = new CanonicalGraph(copy);
+            checkLabelling(canonicalCopy, n, "graph " + g + " relabelled");
+            int[] cachedClique = cache.get(SolutionCache.CLIQUE, canonicalCopy, clique.size());
+            int[] cachedColoring = cache.get(SolutionCache.COLORING, canonicalCopy, 0);
+            if (!canonicalCopy.getHash().equals(canonical.getHash())) {
+                // a labelling which does not separate all the vertices may miss, never hit wrongly
+                TestSupport.check(cachedClique == null && cachedColoring == null,
+                        "graph " + g + ": a different hash hit the cache");
+                continue;
+            }
+            noHits++;
+            TestSupport.check(cachedClique != null && cachedColoring != null, "graph " + g + ": the relabelled copy missed");
+
+            List<Integer> copyClique = new ArrayList<>();
+            for (int value : cachedClique) {
+                copyClique.add(canonicalCopy.getVertex(value));
+            }
+            TestSupport.check(isClique(copy, copyClique) && copyClique.size() == clique.size(),
+                    "graph " + g + ": the cached clique " + copyClique + " is not a maximum clique of the copy");
+            int[] copyColoring = new int[n + 1];
+            for (int label = 1; label <= n; label++) {
+                copyColoring[canonicalCopy.getVertex(label)] = cachedColoring[label - 1];
+            }
+            TestSupport.check(isProperColoring(copy, copyColoring),
+                    "graph " + g + ": the cached coloring is not a proper coloring of the copy");
+        }
+        // the refinement separates the vertices of almost all random graphs
+        TestSupport.check(noHits >= NO_GRAPHS * 9 / 10, "only " + noHits + " of " + NO_GRAPHS + " relabelled graphs hit");
+    }
+
+    /**
+     * A cache whose directory is a regular file cannot keep anything: put reports it and
+     * returns, and get misses
+     */
+    private static void testUnwritableCache(Path directory) throws IOException {
+        Path file = Files.writeString(directory.resolve("not-a-directory"), "");
+        SolutionCache cache = new SolutionCache(file, 1);
+        Graph graph = TestSupport.randomGraph(8, 0.5, new Random(2));
+        CanonicalGraph canonical = new CanonicalGraph(graph);
+        cache.put(SolutionCache.CLIQUE, canonical, 1, new int[] {1});
+        TestSupport.check(cache.get(SolutionCache.CLIQUE, canonical, 1) == null, "an unwritable cache hit");
+    }
+
+    /**
+     * The canonical labels and the vertices must be inverse permutations of 1..n
+     */
+    private static void checkLabelling(CanonicalGraph canonical, int n, String name) {
+        for (int v = 1; v <= n; v++) {
+            int label = canonical.getCanonicalLabel(v);
+            TestSupport.check(label >= 1 && label <= n && canonical.getVertex(label) == v,
+                    name + ": the canonical label of " + v + " does not map back to it");
+        }
+    }
+
+    private static int[] randomPermutation(int n, Random random) {
+        int[] permutation = new int[n + 1];
+        for (int v = 1; v <= n; v++) {
+            permutation[v] = v;
+        }
+        for (int v = n; v > 1; v--) {
+            int w = 1 + random.nextInt(v);
+            int swap = permutation[v];
+            permutation[v] = permutation[w];
+            permutation[w] = swap;
+        }
+        return permutation;
+    }
+
+    private static Graph relabel(Graph graph, int[] permutation) {
+        int n = graph.getNoVertices();
+        List<int[]> edges = new ArrayList<>();
+        for (int v = 1; v <= n; v++) {
+            for (int w = v + 1; w <= n; w++) {
+                if (graph.hasEdge(v, w)) {
+                    edges.add(new int[] {permutation[v], permutation[w]});
+                }
+            }
+        }
+        // the edges in a shuffled order as well
+        Collections.shuffle(edges, new Random(n));
+        int[] from = new int[edges.size()];
+        int[] to = new int[edges.size()];
+        for (int i = 0; i < edges.size(); i++) {
+            from[i] = edges.get(i)[0];
+            to[i] = edges.get(i)[1];
+        }
+        return Graph.fromEdges(n, edges.size(), from, to);
+    }
+
+    /**
+     * @return a maximum clique, by brute force over the subsets of the vertices
+     */
+    private static List<Integer> maximumClique(Graph graph) {
+        int n = graph.getNoVertices();
+        List<Integer> best = new ArrayList<>();
+        for (int subset = 1; subset < 1 << n; subset++) {
+            if (Integer.bitCount(subset) <= best.size()) {
+                continue;
+            }
+            List<Integer> vertices = new ArrayList<>();
+            for (int v = 1; v <= n; v++) {
+                if ((subset >> (v - 1) & 1) == 1) {
+                    vertices.add(v);
+                }
+            }
+            if (isClique(graph, vertices)) {
+                best = vertices;
+            }
+        }
+        return best;
+    }
+
+    private static boolean isClique(Graph graph, List<Integer> vertices) {
+        for (int i = 0; i < vertices.size(); i++) {
+            for (int j = i + 1; j < vertices.size(); j++) {
+                if (!graph.hasEdge(vertices.get(i), vertices.get(j))) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return for each vertex, the smallest color (from 1) not taken by a previous neighbour
+     */
+    private static int[] greedyColoring(Graph graph) {
+        int n = graph.getNoVertices();
+        int[] colors = new int[n + 1];
+        for (int v = 1; v <= n; v++) {
+            boolean[] taken = new boolean[n + 2];
+            for (int w = 1; w < v; w++) {
+                if (graph.hasEdge(v, w)) {
+                    taken[colors[w]] = true;
+                }
+            }
+            colors[v] = 1;
+            while (taken[colors[v]]) {
+                colors[v]++;
+            }
+        }
+        return colors;
+    }
+
+    private static boolean isProperColoring(Graph graph, int[] colors) {
+        int n = graph.getNoVertices();
+        for (int v = 1; v <= n; v++) {
+            if (colors[v] < 1) {
+                return false;
+            }
+            for (int w = v + 1; w <= n; w++) {
+                if (graph.hasEdge(v, w) && colors[v] == colors[w]) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static void deleteRecursively(Path directory) throws IOException {
+        List<Path> paths = new ArrayList<>();
+        try (Stream<Path> walk = Files.walk(directory)) {
+            walk.sorted(Comparator.reverseOrder()).forEach(paths::add);
+        }
+        for (Path path : paths) {
+            Files.deleteIfExists(path);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Helpers shared by the tests: the checks, random graphs and formulas, and brute-force
+ * answers to compare with
+ */
+final class TestSupport {
+    private TestSupport() {
+    }
+
+    /**
+     * Fail the test if the condition does not hold
+     * @param condition the condition
+     * @param message what went wrong
+     */
+    static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+
+    /**
+     * @return a random graph G(n, p)
+     */
+    static Graph randomGraph(int n, double p, Random random) {
+        List<int[]> edges = new ArrayList<>();
+        for (int v = 1; v <= n; v++) {
+            for (int w = v + 1; w <= n; w++) {
+                if (random.nextDouble() < p) {
+                    edges.add(new int[] {v, w});
+                }
+            }
+        }
+        int[] from = new int[edges.size()];
+        int[] to = new int[edges.size()];
+        for (int i = 0; i < edges.size(); i++) {
+            from[i] = edges.get(i)[0];
+            to[i] = edges.get(i)[1];
+        }
+        return Graph.fromEdges(n, edges.size(), from, to);
+    }
+
+    /**
+     * @return a random formula with clauses of the given width over the given variables
+     */
+    static List<int[]> randomFormula(int noVariables, int noClauses, int width, Random random) {
+        List<int[]> clauses = new ArrayList<>();
+        for (int c = 0; c < noClauses; c++) {
+            int[] clause = new int[width];
+            for (int i = 0; i < width; i++) {
+                int v = 1 + random.nextInt(noVariables);
+                clause[i] = random.nextBoolean() ? v : -v;
+            }
+            clauses.add(clause);
+        }
+        return clauses;
+    }
+
+    /**
+     * @param clauses the clauses, as DIMACS literals
+     * @param assignment the values of the variables, bit v - 1 for the variable v
+     * @return whether the assignment satisfies all the clauses
+     */
+    static boolean satisfies(List<int[]> clauses, long assignment) {
+        for (int[] clause : clauses) {
+            if (!satisfies(clause, assignment)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static boolean satisfies(int[] clause, long assignment) {
+        for (int literal : clause) {
+            if (((assignment >> (Math.abs(literal) - 1)) & 1) == (literal > 0 ? 1 : 0)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Decide the satisfiability of the clauses by trying every assignment
+     * @param noVariables the number of variables (at most 24)
+     * @return whether some assignment satisfies all the clauses
+     */
+    static boolean isSatisfiable(List<int[]> clauses, int noVariables) {
+        for (long assignment = 0; assignment < 1L << noVariables; assignment++) {
+            if (satisfies(clauses, assignment)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param model a model as DIMACS literals (the ith value is i + 1 or -(i + 1))
+     * @return the model as an assignment, bit v - 1 for the variable v
+     */
+    static long toAssignment(int[] model) {
+        long assignment = 0;
+        for (int literal : model) {
+            if (literal > 0 && literal <= 64) {
+                assignment |= 1L << (literal - 1);
+            }
+        }
+        return assignment;
+    }
+}
@@ -0,0 +1,124 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Tests of the vertex cover kernel: on small random graphs, the cover lifted from a
+ * minimum cover of the kernel is a cover of the graph, and a minimum one (both
+ * checked by brute force), with the kernel in either representation
+ */
+public class VertexCoverKernelTest {
+    private static final int NO_GRAPHS = 400;
+    private static final int MAX_VERTICES = 16;
+
+    public static void main(String[] args) {
+        Random random = new Random(1);
+        for (int g = 0; g < NO_GRAPHS; g++) {
+            System.setProperty(Constants.GRAPH_PROPERTY, g % 2 == 0 ? Constants.BITSET_GRAPH : Constants.CSR_GRAPH);
+            Graph graph;
+            if (g % 4 < 2) {
+                // mostly sparse graphs, whose vertices of degree 1 and 2 trigger the folds
+                graph = TestSupport.randomGraph(1 + random.nextInt(MAX_VERTICES),
+                        random.nextDouble() * random.nextDouble(), random);
+            } else {
+                graph = crownGraph(random);
+            }
+            int n = graph.getNoVertices();
+            int minimum = minimumCover(graph).size();
+
+            VertexCoverKernel kernel = new VertexCoverKernel(graph);
+            kernel.reduce();
+            Graph reduced = kernel.getKernel().getGraph();
+            TestSupport.check(reduced.getNoVertices() <= n, "graph " + g + ": the kernel is larger than the graph");
+            List<Integer> kernelCover = minimumCover(reduced);
+            TestSupport.check(kernel.getNoDecidedVertices() + kernelCover.size() == minimum,
+                    "graph " + g + ": the rules decided " + kernel.getNoDecidedVertices() + " vertices, the kernel needs "
+                            + kernelCover.size() + ", the minimum cover has " + minimum);
+
+            List<Integer> lifted = kernel.lift(kernelCover);
+            TestSupport.check(isCover(graph, lifted), "graph " + g + ": the lifted cover " + lifted + " misses an edge");
+            TestSupport.check(lifted.size() == minimum, "graph " + g + ": the lifted cover has "
+                    + lifted.size() + " vertices instead of " + minimum);
+        }
+        System.clearProperty(Constants.GRAPH_PROPERTY);
+        System.out.println("VertexCoverKernelTest: OK");
+    }
+
+    /**
+     * A graph with a crown which the degree rules leave alone: a head H of 3 or 4 vertices,
+     * more independent vertices I each connected to at least 3 vertices of H, and a dense
+     * rest connected to H
+     */
+    private static Graph crownGraph(Random random) {
+        int head = 3 + random.nextInt(2);
+        int independent = head + 1 + random.nextInt(3);
+        int rest = 4 + random.nextInt(MAX_VERTICES - head - independent - 3);
+        int n = head + independent + rest;
+        List<int[]> edges = new ArrayList<>();
+        for (int i = 0; i < independent; i++) {
+            int v = head + i + 1;
+            for (int h = 1; h <= head; h++) {
+                if (h <= 3 || random.nextBoolean()) {
+                    edges.add(new int[] {(h + i) % head + 1, v});
+                }
+            }
+        }
+        for (int v = head + independent + 1; v <= n; v++) {
+            for (int w = v + 1; w <= n; w++) {
+                if (random.nextDouble() < 0.8) {
+                    edges.add(new int[] {v, w});
+                }
+            }
+            for (int h = 1; h <= head; h++) {
+                if (random.nextDouble() < 0.5) {
+                    edges.add(new int[] {h, v});
+                }
+            }
+        }
+        int[] from = new int[edges.size()];
+        int[] to = new int[edges.size()];
+        for (int e = 0; e < edges.size(); e++) {
+            from[e] = edges.get(e)[0];
+            to[e] = edges.get(e)[1];
+        }
+        return Graph.fromEdges(n, edges.size(), from, to);
+    }
+
+    /**
+     * @return a minimum vertex cover of the graph, found by trying the subsets by size
+     */
+    private static List<Integer> minimumCover(Graph graph) {
+        int n = graph.getNoVertices();
+        List<Integer> best = null;
+        for (int subset = 0; subset < 1 << n; subset++) {
+            if (best != null && Integer.bitCount(subset) >= best.size()) {
+                continue;
+            }
+            List<Integer> vertices = new ArrayList<>();
+            for (int v = 1; v <= n; v++) {
+                if ((subset >> (v - 1) & 1) == 1) {
+                    vertices.add(v);
+                }
+            }
+            if (isCover(graph, vertices)) {
+                best = vertices;
+            }
+        }
+        return best;
+    }
+
+    private static boolean isCover(Graph graph, List<Integer> vertices) {
+        boolean[] inCover = new boolean[graph.getNoVertices() + 1];
+        for (int v : vertices) {
+            inCover[v] = true;
+        }
+        for (int v = 1; v <= graph.getNoVertices(); v++) {
+            for (int w = graph.nextNeighbour(v, v + 1); w != -1; w = graph.nextNeighbour(v, w + 1)) {
+                if (!inCover[v] && !inCover[w]) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+}